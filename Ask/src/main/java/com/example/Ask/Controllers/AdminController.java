@@ -0,0 +1,49 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.config.QueryStatsRegistry;
+import com.example.Ask.config.SlowQueryRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private SlowQueryRegistry slowQueryRegistry;
+    private QueryStatsRegistry queryStatsRegistry;
+
+    public AdminController(SlowQueryRegistry slowQueryRegistry, QueryStatsRegistry queryStatsRegistry) {
+        this.slowQueryRegistry = slowQueryRegistry;
+        this.queryStatsRegistry = queryStatsRegistry;
+    }
+
+    @GetMapping("/slow-queries")
+    public List<SlowQueryRegistry.SlowQuery> slowQueries(@RequestParam(defaultValue = "20") int limit) {
+        return slowQueryRegistry.top(limit);
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> resetSlowQueries() {
+        slowQueryRegistry.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/query-stats")
+    public List<QueryStatsRegistry.EndpointQueryStats> queryStats() {
+        return queryStatsRegistry.snapshot();
+    }
+
+    @DeleteMapping("/query-stats")
+    public ResponseEntity<Void> resetQueryStats() {
+        queryStatsRegistry.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.Ask.Controllers;
 
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.Service.AdoptionArchiveService;
 import com.example.Ask.Service.AnimalService;
+import com.example.Ask.Service.MatchService;
+import com.example.Ask.Service.ReadModelService;
+import com.example.Ask.Service.WaitlistService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 import com.example.Ask.Entities.Animal;
 import com.example.Ask.Entities.Gender;
 import java.util.List;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.example.Ask.Repositories.RequestRepository;
 import com.example.Ask.Service.EmailService;
@@ -24,8 +30,18 @@ public class AnimalController {
     private RequestRepository requestRepository;
     private EmailService emailService;
     private UserService userService;
-
-    public AnimalController(AnimalService animalservice, RequestRepository requestRepository, EmailService emailService, UserService userService) {
+    private ReadModelService readModelService;
+    private AdoptionArchiveService adoptionArchiveService;
+    private WaitlistService waitlistService;
+    private MatchService matchService;
+
+    public AnimalController(AnimalService animalservice, RequestRepository requestRepository, EmailService emailService, UserService userService,
+                            ReadModelService readModelService, AdoptionArchiveService adoptionArchiveService,
+                            WaitlistService waitlistService, MatchService matchService) {
+        this.readModelService = readModelService;
+        this.adoptionArchiveService = adoptionArchiveService;
+        this.waitlistService = waitlistService;
+        this.matchService = matchService;
         this.animalservice = animalservice;
         this.requestRepository = requestRepository;
         this.emailService = emailService;
@@ -33,24 +49,34 @@ public class AnimalController {
     }
 
     @RequestMapping("")
-    public List<Animal> showAnimals() {
-        return animalservice.getAnimals();
+    public List<AnimalDto> showAnimals() {
+        return readModelService.animals();
+    }
+
+    // Available animals ranked for the current user, best match first
+    @GetMapping("/recommended")
+    public ResponseEntity<List<AnimalDto>> recommendedAnimals(@RequestParam(defaultValue = "10") int limit) {
+        User user = currentUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(matchService.recommend(user.getId(), limit));
     }
 
     @GetMapping("/{id}")
-    public Animal showAnimal(@PathVariable Integer id){
-        return animalservice.getAnimal(id);
+    public AnimalDto showAnimal(@PathVariable Integer id){
+        return AnimalDto.from(animalservice.getAnimal(id));
     }
 
     @PostMapping("")
-    public Animal createAnimal(@RequestBody Animal animal) {
-        return animalservice.saveAnimal(animal);
+    public AnimalDto createAnimal(@RequestBody Animal animal) {
+        return AnimalDto.from(animalservice.saveAnimal(animal));
     }
 
     @PutMapping("/{id}")
-    public Animal updateAnimal(@PathVariable Integer id, @RequestBody Animal animal) {
+    public AnimalDto updateAnimal(@PathVariable Integer id, @RequestBody Animal animal) {
         animal.setId(id);
-        return animalservice.saveAnimal(animal);
+        return AnimalDto.from(animalservice.saveAnimal(animal));
     }
 
     @DeleteMapping("/{id}")
@@ -61,21 +87,21 @@ public class AnimalController {
     }
 
     @PutMapping("/Request/{id}")
-    public Animal requestAnimal(@PathVariable Integer id) {
-        Animal animal = animalservice.getAnimal(id);
-        animal.setReq(1);
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.findByUsername(username);
-        animal.setUserId(user != null ? user.getId() : null);
-        return animalservice.saveAnimal(animal);
+    public ResponseEntity<AnimalDto> requestAnimal(@PathVariable Integer id) {
+        User user = currentUser();
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Reserves the animal if it is free, otherwise queues the user behind the current applicant
+        waitlistService.join(id, user.getId());
+        return ResponseEntity.ok(AnimalDto.from(animalservice.getAnimal(id)));
     }
 
     @PutMapping("/Deny/{id}")
-    public Animal denyAnimal(@PathVariable Integer id) {
-        Animal animal = animalservice.getAnimal(id);
-        animal.setReq(0);
-        return animalservice.saveAnimal(animal);
+    public AnimalDto denyAnimal(@PathVariable Integer id) {
+        // The next applicant on the waitlist, if any, gets the animal
+        waitlistService.deny(id);
+        return AnimalDto.from(animalservice.getAnimal(id));
     }
 
     @PostMapping("/{id}/accept-adoption")
@@ -92,8 +118,15 @@ public class AnimalController {
         if (userEmail != null) {
             emailService.send(userEmail, "Η υιοθεσία σας έγινε αποδεκτή!", "Η υιοθεσία του ζώου " + animal.getName() + " έγινε αποδεκτή.");
         }
-        animalservice.Delanimal(animal);
-        return ResponseEntity.ok("Adoption accepted, animal deleted, and email sent.");
+        // Moved to adoption_history with its adoption requests, not deleted
+        adoptionArchiveService.archive(List.of(animal.getId()));
+        return ResponseEntity.ok("Adoption accepted, animal archived, and email sent.");
+    }
+
+    // The token outlives its user when the account is deleted (e.g. by the unverified-user cleanup)
+    private User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userService.findByUsername(authentication.getName());
     }
 
 
@@ -102,4 +135,4 @@ public class AnimalController {
 
 
 
-}
\ No newline at end of file
+}
\ No newline at end of file
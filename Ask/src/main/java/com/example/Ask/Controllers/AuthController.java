@@ -1,9 +1,14 @@
 package com.example.Ask.Controllers;
 
+import com.example.Ask.Dto.UserDto;
 import com.example.Ask.Entities.User;
 import com.example.Ask.Service.UserService;
 import com.example.Ask.Service.EmailService;
+import com.example.Ask.Service.TokenRevocationService;
 import com.example.Ask.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +27,9 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
     @Autowired
@@ -30,39 +38,35 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
     @Autowired
     private EmailService emailService;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody Map<String, String> registerData) {
         try {
-            System.out.println("Registration request received: " + registerData);
-            
             String username = registerData.get("username");
             String email = registerData.get("email");
             String password = registerData.get("password");
 
-            System.out.println("Username: " + username);
-            System.out.println("Email: " + email);
-            System.out.println("Password: " + (password != null ? "***" : "null"));
-
             // Validate input
             if (username == null || username.trim().isEmpty()) {
                 Map<String, String> response = new HashMap<>();
                 response.put("error", "Username is required");
-                System.out.println("Validation error: Username is required");
+                logger.debug("event=auth.register.rejected reason=username_missing");
                 return ResponseEntity.badRequest().body(response);
             }
 
             if (email == null || email.trim().isEmpty()) {
                 Map<String, String> response = new HashMap<>();
                 response.put("error", "Email is required");
-                System.out.println("Validation error: Email is required");
+                logger.debug("event=auth.register.rejected reason=email_missing");
                 return ResponseEntity.badRequest().body(response);
             }
 
             if (password == null || password.trim().isEmpty()) {
                 Map<String, String> response = new HashMap<>();
                 response.put("error", "Password is required");
-                System.out.println("Validation error: Password is required");
+                logger.debug("event=auth.register.rejected reason=password_missing");
                 return ResponseEntity.badRequest().body(response);
             }
 
@@ -70,18 +74,17 @@ public class AuthController {
             if (userService.existsByUsername(username)) {
                 Map<String, String> response = new HashMap<>();
                 response.put("error", "Username already exists");
-                System.out.println("Validation error: Username already exists");
+                logger.debug("event=auth.register.rejected reason=username_taken");
                 return ResponseEntity.badRequest().body(response);
             }
 
             if (userService.existsByEmail(email)) {
                 Map<String, String> response = new HashMap<>();
                 response.put("error", "Email already exists");
-                System.out.println("Validation error: Email already exists");
+                logger.debug("event=auth.register.rejected reason=email_taken");
                 return ResponseEntity.badRequest().body(response);
             }
 
-            System.out.println("Creating user...");
             // Create user with verification token
             User user = new User(username, email, password);
             String verificationToken = UUID.randomUUID().toString();
@@ -89,24 +92,21 @@ public class AuthController {
             user.setVerificationTokenExpiry(LocalDateTime.now().plusHours(24));
             
             Integer userId = userService.saveUser(user);
-            System.out.println("User created with ID: " + userId);
+            logger.info("event=auth.register.created userId={}", userId);
 
             // Send verification email (don't let email failure break registration)
             try {
                 emailService.sendVerificationEmail(email, username, verificationToken);
-                System.out.println("Verification email sent successfully");
             } catch (Exception e) {
-                System.err.println("Failed to send verification email, but user was created: " + e.getMessage());
+                logger.warn("event=auth.register.mail_failed userId={} message={}", userId, e.getMessage());
             }
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Registration successful. Please check your email to verify your account.");
-            System.out.println("Registration completed successfully");
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            System.err.println("Registration error: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("event=auth.register.failed message={}", e.getMessage(), e);
             Map<String, String> response = new HashMap<>();
             response.put("error", "Registration failed: " + e.getMessage());
             return ResponseEntity.badRequest().body(response);
@@ -150,7 +150,7 @@ public class AuthController {
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
-            response.put("user", user);
+            response.put("user", UserDto.from(user));
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -160,6 +160,23 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        Claims claims = header != null && header.startsWith("Bearer ") ? jwtUtil.parseClaims(header.substring(7)) : null;
+        if (claims == null) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Invalid token");
+            return ResponseEntity.badRequest().body(response);
+        }
+        tokenRevocationService.revoke(claims);
+        SecurityContextHolder.clearContext();
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Logged out successfully");
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/verify-email")
     public ResponseEntity<?> verifyEmail(@RequestParam String token) {
         try {
@@ -207,8 +224,7 @@ public class AuthController {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleException(Exception e) {
-        System.err.println("Global exception handler caught: " + e.getMessage());
-        e.printStackTrace();
+        logger.warn("event=auth.unhandled message={}", e.getMessage(), e);
         Map<String, String> response = new HashMap<>();
         response.put("error", "An error occurred: " + e.getMessage());
         return ResponseEntity.badRequest().body(response);
@@ -0,0 +1,84 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Callable;
+
+// GET /api/export/{animals|requests|adoptions|adoption-history}?format=ndjson|csv
+// The body is written while the rows are read (chunked transfer, no Content-Length).
+// The body runs on the async dispatch; if the request times out or the client goes away
+// before it starts, the async completion callback hands the export permit back instead.
+// Only exports get the long app.export.timeout-ms; other async requests keep the default.
+@RestController
+@RequestMapping("/api/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private ExportService exportService;
+    private final long timeoutMs;
+
+    public ExportController(ExportService exportService,
+                            @Value("${app.export.timeout-ms:1800000}") long timeoutMs) {
+        this.exportService = exportService;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String dataset,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        HttpServletRequest request) {
+        if (!exportService.supports(dataset)) {
+            return ResponseEntity.notFound().build();
+        }
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportService.Permit permit = exportService.tryAcquire();
+        if (permit == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportService.Permit.class,
+                new CallableProcessingInterceptor() {
+                    // Called before the async request starts, while the timeout can still change
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(timeoutMs);
+                        }
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        permit.close();
+                    }
+                });
+        String filename = dataset + (exportFormat == ExportService.Format.CSV ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(out -> exportService.export(dataset, exportFormat, out, permit));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Dto.AdoptionHistoryDto;
+import com.example.Ask.Service.AdoptionArchiveService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Adopted animals, read from adoption_history rather than the live catalog.
+// GET /api/history/adoptions?from=2026-01-01T00:00&to=2026-07-01T00:00&limit=100
+@RestController
+@RequestMapping("/api/history")
+@PreAuthorize("hasRole('ADMIN')")
+public class HistoryController {
+
+    private AdoptionArchiveService adoptionArchiveService;
+
+    public HistoryController(AdoptionArchiveService adoptionArchiveService) {
+        this.adoptionArchiveService = adoptionArchiveService;
+    }
+
+    @GetMapping("/adoptions")
+    public List<AdoptionHistoryDto> adoptions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return adoptionArchiveService.history(from, to, limit);
+    }
+
+    @GetMapping("/animals/{animalId}")
+    public List<AdoptionHistoryDto> animal(@PathVariable Integer animalId) {
+        return adoptionArchiveService.animalHistory(animalId);
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.Ask.Controllers;
 
+import com.example.Ask.Dto.RequestDto;
 import com.example.Ask.Entities.Request;
 import com.example.Ask.Repositories.RequestRepository;
 import com.example.Ask.Service.AnimalService;
+import com.example.Ask.Service.ReadModelService;
 import com.example.Ask.Service.RequestService;
+import com.example.Ask.Service.ReviewQueueService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
 import com.example.Ask.Entities.Animal;
@@ -16,53 +21,53 @@ public class RequestController {
 
     private AnimalService animalService;
     private RequestService requestService;
-    public RequestController(RequestService requestService,AnimalService animalService) {
+    private ReadModelService readModelService;
+    private ReviewQueueService reviewQueueService;
+    public RequestController(RequestService requestService,AnimalService animalService, ReadModelService readModelService,
+                             ReviewQueueService reviewQueueService) {
+        this.readModelService = readModelService;
+        this.reviewQueueService = reviewQueueService;
         this.requestService = requestService;
         this.animalService = animalService;
     }
 
     @RequestMapping("")
-    public List<Request> showRequests() {
-        return requestService.getRequests();
+    public List<RequestDto> showRequests() {
+        return readModelService.requests();
     }
     @GetMapping("/{id}")
-    public Request showRequest(@PathVariable Integer id){
-        return requestService.getRequest(id);
+    public RequestDto showRequest(@PathVariable Integer id){
+        Request request = requestService.getRequest(id);
+        return request == null ? null : RequestDto.from(request);
     }
 
     @PostMapping("/Approve/{id}")
-    public Request AdminApprove(@PathVariable Integer id) {
-        Request request = requestService.getRequest(id);
-        request.setAdminApproved(1);
-        requestService.CheckRequest(request);
-        return request;
+    public ResponseEntity<RequestDto> AdminApprove(@PathVariable Integer id) {
+        return approve(ReviewQueueService.Stage.ADMIN, id);
     }
     @PostMapping("/ApproveD/{id}")
-    public Request DocApprove(@PathVariable Integer id){
-        Request request = requestService.getRequest(id);
-        request.setDocApproved(1);
-        requestService.CheckRequest(request);
-        return request;
+    public ResponseEntity<RequestDto> DocApprove(@PathVariable Integer id){
+        return approve(ReviewQueueService.Stage.DOCTOR, id);
     }
     @GetMapping("/new")
-    public Request addRequest(){
-        return new Request();
+    public RequestDto addRequest(){
+        return RequestDto.from(new Request());
     }
     @PostMapping("/new")
-    public List<Request> saveRequest(@RequestBody Request request) {
+    public List<RequestDto> saveRequest(@RequestBody Request request) {
         requestService.saveRequest(request);
-        return requestService.getRequests();
+        return readModelService.requests();
     }
 
     @PostMapping("")
-    public Request createRequest(@RequestBody Request request) {
-        return requestService.saveRequest(request);
+    public RequestDto createRequest(@RequestBody Request request) {
+        return RequestDto.from(requestService.saveRequest(request));
     }
 
     @PutMapping("/{id}")
-    public Request updateRequest(@PathVariable Integer id, @RequestBody Request request) {
+    public RequestDto updateRequest(@PathVariable Integer id, @RequestBody Request request) {
         request.setId(id);
-        return requestService.saveRequest(request);
+        return RequestDto.from(requestService.saveRequest(request));
     }
 
     @DeleteMapping("/{id}")
@@ -76,18 +81,25 @@ public class RequestController {
     }
 
     @PutMapping("/Approve/{id}")
-    public Request adminApprove(@PathVariable Integer id) {
-        Request request = requestService.getRequest(id);
-        request.setAdminApproved(1);
-        requestService.CheckRequest(request);
-        return requestService.saveRequest(request);
+    public ResponseEntity<RequestDto> adminApprove(@PathVariable Integer id) {
+        return approve(ReviewQueueService.Stage.ADMIN, id);
     }
 
     @PutMapping("/ApproveD/{id}")
-    public Request docApprove(@PathVariable Integer id) {
-        Request request = requestService.getRequest(id);
-        request.setDocApproved(1);
-        requestService.CheckRequest(request);
-        return requestService.saveRequest(request);
+    public ResponseEntity<RequestDto> docApprove(@PathVariable Integer id) {
+        return approve(ReviewQueueService.Stage.DOCTOR, id);
+    }
+
+    // 409 while another reviewer is working on this step through the review queue (/api/review)
+    private ResponseEntity<RequestDto> approve(ReviewQueueService.Stage stage, Integer id) {
+        String reviewer = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (reviewQueueService.claimedByOther(stage, reviewer, id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Request request = requestService.approve(id, stage == ReviewQueueService.Stage.DOCTOR);
+        if (request == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(RequestDto.from(request));
     }
 }
@@ -0,0 +1,81 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Dto.RequestDto;
+import com.example.Ask.Dto.ReviewClaimDto;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Repositories.RequestRepository;
+import com.example.Ask.Service.ReviewQueueService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Review work queue, one per step: /api/review/doctor/... for doctors, /api/review/admin/... for admins.
+//   POST claim?limit=10     the next requests waiting for the step, leased to the caller
+//   POST renew   [ids]      extends the lease on requests the caller still holds
+//   POST release [ids]      hands requests back to the queue
+//   POST {id}/approve       approves the step; 409 unless the caller holds a live lease
+// Each queue is open only to the role that reviews its step.
+@RestController
+@RequestMapping("/api/review/{stage}")
+@PreAuthorize("(#stage == 'doctor' and hasRole('DOCTOR')) or (#stage == 'admin' and hasRole('ADMIN'))")
+public class ReviewQueueController {
+
+    private ReviewQueueService reviewQueueService;
+    private RequestRepository requestRepository;
+
+    public ReviewQueueController(ReviewQueueService reviewQueueService, RequestRepository requestRepository) {
+        this.reviewQueueService = reviewQueueService;
+        this.requestRepository = requestRepository;
+    }
+
+    @PostMapping("/claim")
+    public ResponseEntity<ReviewClaimDto> claim(@PathVariable String stage, @RequestParam(defaultValue = "10") int limit) {
+        ReviewQueueService.Stage queue = stage(stage);
+        return ResponseEntity.ok(dto(reviewQueueService.claim(queue, reviewer(), limit)));
+    }
+
+    @PostMapping("/renew")
+    public ResponseEntity<ReviewClaimDto> renew(@PathVariable String stage, @RequestBody List<Integer> ids) {
+        ReviewQueueService.Stage queue = stage(stage);
+        return ResponseEntity.ok(dto(reviewQueueService.renew(queue, reviewer(), ids)));
+    }
+
+    @PostMapping("/release")
+    public ResponseEntity<Void> release(@PathVariable String stage, @RequestBody List<Integer> ids) {
+        ReviewQueueService.Stage queue = stage(stage);
+        reviewQueueService.release(queue, reviewer(), ids);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/approve")
+    public ResponseEntity<RequestDto> approve(@PathVariable String stage, @PathVariable Integer id) {
+        ReviewQueueService.Stage queue = stage(stage);
+        Request request = reviewQueueService.approve(queue, reviewer(), id);
+        if (request == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(RequestDto.from(request));
+    }
+
+    private ReviewClaimDto dto(ReviewQueueService.Claim claim) {
+        List<RequestDto> requests = claim.ids().isEmpty() ? List.of() : requestRepository.findDtosByIdIn(claim.ids());
+        return new ReviewClaimDto(requests, claim.leaseExpiresAt());
+    }
+
+    private static ReviewQueueService.Stage stage(String stage) {
+        return stage.equals("doctor") ? ReviewQueueService.Stage.DOCTOR : ReviewQueueService.Stage.ADMIN;
+    }
+
+    private static String reviewer() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
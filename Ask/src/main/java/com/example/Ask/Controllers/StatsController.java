@@ -0,0 +1,35 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Dto.StatsDto;
+import com.example.Ask.Service.StatsService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Dashboard counters for the admin, doctor and shelter views, served from the read model
+// instead of being counted client-side from the full lists
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("")
+    public StatsDto stats() {
+        return statsService.current();
+    }
+
+    // Recounts from the tables, e.g. after rows were changed by hand
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatsDto rebuild() {
+        statsService.rebuild();
+        return statsService.current();
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.Ask.Controllers;
 
+import com.example.Ask.Dto.UserDto;
 import com.example.Ask.Entities.User;
 import com.example.Ask.Entities.Role;
 import com.example.Ask.Repositories.RoleRepository;
 import com.example.Ask.Repositories.UserRepository;
+import com.example.Ask.Service.ReadModelService;
 import com.example.Ask.Service.UserService;
 import jakarta.annotation.PostConstruct;
 import org.springframework.http.ResponseEntity;
@@ -28,9 +30,12 @@ public class UserController {
 
     private RoleRepository roleRepository;
 
-    public UserController(UserService userService, RoleRepository roleRepository) {
+    private ReadModelService readModelService;
+
+    public UserController(UserService userService, RoleRepository roleRepository, ReadModelService readModelService) {
         this.userService = userService;
         this.roleRepository = roleRepository;
+        this.readModelService = readModelService;
     }
 
     @PostMapping("/saveUser")
@@ -42,40 +47,40 @@ public class UserController {
     }
 
     @GetMapping("/users")
-    public List<User> showUsers(){
-        return userService.getUsers();
+    public List<UserDto> showUsers(){
+        return readModelService.users();
     }
 
     @GetMapping("/user/{user_id}")
-    public User showUser(@PathVariable Integer user_id){
-        return userService.getUser(user_id);
+    public UserDto showUser(@PathVariable Integer user_id){
+        return UserDto.from(userService.getUser(user_id));
     }
 
     @PostMapping("/user/{user_id}")
-    public User saveStudent(@PathVariable Integer user_id, @RequestBody User user) {
+    public UserDto saveStudent(@PathVariable Integer user_id, @RequestBody User user) {
         User the_user = (User) userService.getUser(user_id);
         the_user.setEmail(user.getEmail());
         the_user.setUsername(user.getUsername());
         userService.updateUser(the_user);
-        return the_user;
+        return UserDto.from(the_user);
     }
 
     @PostMapping("/user/role/delete/{user_id}/{role_id}")
-    public User deleteRolefromUser(@PathVariable Integer user_id, @PathVariable Integer role_id){
+    public UserDto deleteRolefromUser(@PathVariable Integer user_id, @PathVariable Integer role_id){
         User user = (User) userService.getUser(user_id);
         Role role = roleRepository.findById(role_id).get();
         user.getRoles().remove(role);
         userService.updateUser(user);
-        return user;
+        return UserDto.from(user);
     }
 
     @PostMapping("/user/role/add/{user_id}/{role_id}")
-    public User addRoletoUser(@PathVariable Integer user_id, @PathVariable Integer role_id){
+    public UserDto addRoletoUser(@PathVariable Integer user_id, @PathVariable Integer role_id){
         User user = (User) userService.getUser(user_id);
         Role role = roleRepository.findById(role_id).get();
         user.getRoles().add(role);
         userService.updateUser(user);
-        return user;
+        return UserDto.from(user);
     }
 
 }
\ No newline at end of file
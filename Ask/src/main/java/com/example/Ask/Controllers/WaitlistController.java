@@ -0,0 +1,59 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Dto.WaitlistEntryDto;
+import com.example.Ask.Entities.User;
+import com.example.Ask.Service.UserService;
+import com.example.Ask.Service.WaitlistService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Adoption waitlists; users join one through PUT /api/animals/Request/{id}.
+//   GET    /api/waitlist/{animalId}                            the applicant and the line behind them
+//   DELETE /api/waitlist/{animalId}/mine                       leaves the line (or gives up the reservation)
+//   PUT    /api/waitlist/{animalId}/{requestId}/priority?score=5  admins: reorders a waiting applicant
+@RestController
+@RequestMapping("/api/waitlist/{animalId}")
+public class WaitlistController {
+
+    private WaitlistService waitlistService;
+    private UserService userService;
+
+    public WaitlistController(WaitlistService waitlistService, UserService userService) {
+        this.waitlistService = waitlistService;
+        this.userService = userService;
+    }
+
+    @GetMapping("")
+    public List<WaitlistEntryDto> waitlist(@PathVariable Integer animalId) {
+        return waitlistService.waitlist(animalId);
+    }
+
+    @DeleteMapping("/mine")
+    public ResponseEntity<Void> withdraw(@PathVariable Integer animalId) {
+        User user = userService.findByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
+        if (user == null || !waitlistService.withdraw(animalId, user.getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{requestId}/priority")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<WaitlistEntryDto>> priority(@PathVariable Integer animalId, @PathVariable Long requestId,
+                                                           @RequestParam int score) {
+        if (!waitlistService.setPriority(animalId, requestId, score)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(waitlistService.waitlist(animalId));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+// One adoption_history row: the animal as it was when archived, its adopter and one of its
+// adoption requests (null when it had none). Gender stays a string so that old history
+// never fails to read.
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record AdoptionHistoryDto(long id, LocalDateTime archivedAt, int animalId, String animalName, String animalType,
+                                 Integer animalAge, String animalGender, Integer adopterId, String adopterUsername,
+                                 Long adoptionRequestId, Integer adoptionRequestUserId, String adoptionRequestStatus) {
+}
@@ -0,0 +1,16 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+// Property names match the JSON the Animal entity used to produce
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record AnimalDto(Integer id, String name, int age, Gender gender, String type, int req, Integer userId) {
+
+    public static AnimalDto from(Animal animal) {
+        return new AnimalDto(animal.getId(), animal.getName(), animal.getAge(), animal.getGender(),
+                animal.getType(), animal.getReq(), animal.getUserId());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record RequestDto(Integer id, String name, int age, Gender gender, String type,
+                         int adminApproved, int docApproved) {
+
+    public static RequestDto from(Request request) {
+        return new RequestDto(request.getId(), request.getName(), request.getAge(), request.getGender(),
+                request.getType(), request.getAdminApproved(), request.getDocApproved());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.Ask.Dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The requests a reviewer holds, and until when; renew before leaseExpiresAt to keep them
+public record ReviewClaimDto(List<RequestDto> requests, LocalDateTime leaseExpiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.Entities.Role;
+
+public record RoleDto(Integer id, String name) {
+
+    public static RoleDto from(Role role) {
+        return new RoleDto(role.getId(), role.getName());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.Map;
+
+// The dashboard counters. adoptionsByMonth is "2026-10" -> animal type -> animals adopted.
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record StatsDto(long pendingRequests, long requestsAwaitingDoctor, long requestsAwaitingAdmin,
+                       long animalsAvailable, long animalsRequested, long pendingAdoptions,
+                       Map<String, Map<String, Long>> adoptionsByMonth) {
+}
@@ -0,0 +1,29 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.Entities.User;
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// What clients see of a user: never the password hash or the verification token
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record UserDto(Integer id, String username, String email, Boolean emailVerified,
+                      LocalDateTime createdAt, LocalDateTime lastLogin, List<RoleDto> roles) {
+
+    // Row of the list projection; the roles are loaded by a second query
+    public UserDto(Integer id, String username, String email, Boolean emailVerified,
+                   LocalDateTime createdAt, LocalDateTime lastLogin) {
+        this(id, username, email, emailVerified, createdAt, lastLogin, List.of());
+    }
+
+    public UserDto withRoles(List<RoleDto> roles) {
+        return new UserDto(id, username, email, emailVerified, createdAt, lastLogin, roles);
+    }
+
+    public static UserDto from(User user) {
+        return new UserDto(user.getId(), user.getUsername(), user.getEmail(), user.getEmailVerified(),
+                user.getCreatedAt(), user.getLastLogin(), user.getRoles().stream().map(RoleDto::from).toList());
+    }
+}
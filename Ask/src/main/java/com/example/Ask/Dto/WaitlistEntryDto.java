@@ -0,0 +1,10 @@
+package com.example.Ask.Dto;
+
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+// One applicant for an animal. position is 0 for the 'pending' applicant the animal is
+// reserved for and 1, 2, ... for the 'waiting' ones in the order they will be served.
+@JsonFilter(SparseFieldsAdvice.FILTER)
+public record WaitlistEntryDto(long requestId, int userId, String status, int priority, int position) {
+}
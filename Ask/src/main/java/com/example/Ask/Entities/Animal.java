@@ -1,8 +1,12 @@
 package com.example.Ask.Entities;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.example.Ask.Entities.Gender;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "animals")
 @Table
 public class Animal {
 
@@ -1,9 +1,18 @@
 package com.example.Ask.Repositories;
 
 import com.example.Ask.Entities.AdoptionRequest;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AdoptionRepository extends JpaRepository<AdoptionRequest, Long> {
+
+    @EntityGraph(attributePaths = {"user", "animal"})
+    List<AdoptionRequest> findByStatus(String status);
+
+    @EntityGraph(attributePaths = {"user", "animal"})
+    List<AdoptionRequest> findByUserUsername(String username);
 } 
\ No newline at end of file
@@ -1,14 +1,34 @@
 package com.example.Ask.Repositories;
 
+import com.example.Ask.Dto.AnimalDto;
 import com.example.Ask.Entities.Animal;
 import com.example.Ask.Entities.Role;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AnimalRepository extends JpaRepository<Animal, Integer> {
     Optional<Animal> findByName(String animalName);
 
+    // Same row lock as the waitlist's select ... for update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Animal a where a.id = :id")
+    Optional<Animal> findByIdForUpdate(Integer id);
+
+    // List view: read straight into DTOs, no managed entities
+    @Query("select new com.example.Ask.Dto.AnimalDto(a.id, a.name, a.age, a.Gender, a.type, a.req, a.userId) " +
+            "from Animal a order by a.id")
+    List<AnimalDto> findAllDtos();
+
+    // The ones still free to request, for re-checking recommendations
+    @Query("select new com.example.Ask.Dto.AnimalDto(a.id, a.name, a.age, a.Gender, a.type, a.req, a.userId) " +
+            "from Animal a where a.id in :ids and a.req = 0")
+    List<AnimalDto> findAvailableDtosByIdIn(List<Integer> ids);
+
 }
\ No newline at end of file
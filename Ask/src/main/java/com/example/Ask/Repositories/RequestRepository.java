@@ -1,13 +1,31 @@
 package com.example.Ask.Repositories;
+import com.example.Ask.Dto.RequestDto;
 import com.example.Ask.Entities.Request;
 import com.example.Ask.Entities.Role;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Integer> {
     Optional<Request> findByName(String animalName);
 
+    // Doctor and admin approvals of one request are serialized on its row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Request r where r.id = :id")
+    Optional<Request> findByIdForUpdate(Integer id);
+
+    @Query("select new com.example.Ask.Dto.RequestDto(r.id, r.name, r.age, r.Gender, r.type, r.AdminApproved, r.DocApproved) " +
+            "from Request r order by r.id")
+    List<RequestDto> findAllDtos();
+
+    @Query("select new com.example.Ask.Dto.RequestDto(r.id, r.name, r.age, r.Gender, r.type, r.AdminApproved, r.DocApproved) " +
+            "from Request r where r.id in :ids order by r.id")
+    List<RequestDto> findDtosByIdIn(List<Integer> ids);
+
 }
@@ -0,0 +1,30 @@
+package com.example.Ask.Repositories;
+
+import com.example.Ask.Entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    // Revoking a token twice (a repeated logout, or the same token on two replicas) is a no-op
+    @Modifying
+    @Query(value = "insert into revoked_tokens (jti, username, expires_at, revoked_at) " +
+            "values (:jti, :username, :expiresAt, :revokedAt) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("username") String username,
+                       @Param("expiresAt") LocalDateTime expiresAt, @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
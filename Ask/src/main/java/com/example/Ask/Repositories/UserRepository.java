@@ -1,14 +1,32 @@
 package com.example.Ask.Repositories;
 
+import com.example.Ask.Dto.UserDto;
 import com.example.Ask.Entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    // Roles are serialized with every user; fetch them in the same query
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll();
+
+    // Used by login, registration checks and loadUserByUsername; the id is cached per
+    // username and the user itself comes from the "users" entity region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users.by-username")
+    })
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
 
@@ -16,4 +34,13 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     Optional<User> findByVerificationToken(String verificationToken);
 
+    // List view: user columns without the password hash or token, then every
+    // (user id, role id, role name) in a second query
+    @Query("select new com.example.Ask.Dto.UserDto(u.id, u.username, u.email, u.emailVerified, u.createdAt, u.lastLogin) " +
+            "from User u order by u.id")
+    List<UserDto> findAllDtos();
+
+    @Query("select u.id, r.id, r.name from User u join u.roles r")
+    List<Object[]> findAllRoleAssignments();
+
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.AdoptionHistoryDto;
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.config.RateLimitedLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Moves adopted animals out of the live catalog instead of deleting them. Every archived
+// animal becomes one adoption_history row per adoption request it had (or one row without a
+// request), copied and then deleted with set-based statements, batch-size animals at a time,
+// all in one transaction. The animal and adoption_request tables only keep what is still in
+// play, so the catalog queries do not grow with the history.
+//
+// On Postgres adoption_history is range-partitioned by month of archived_at: history reads
+// with a time range only touch those months, and old months can be detached whole.
+@Service
+public class AdoptionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdoptionArchiveService.class);
+    private static final RateLimitedLogger partitionFailures = new RateLimitedLogger(logger, 5, 60_000, 1);
+
+    private static final String INSERT_HISTORY =
+            "insert into adoption_history (archived_at, animal_id, animal_name, animal_type, animal_age, animal_gender, " +
+                    "adopter_id, adopter_username, adoption_request_id, adoption_request_user_id, adoption_request_status) " +
+                    "select :archivedAt, a.id, a.name, a.type, a.age, a.gender, a.user_id, u.username, ar.id, ar.user_id, ar.status " +
+                    "from animal a " +
+                    "left join users u on u.id = a.user_id " +
+                    "left join adoption_request ar on ar.animal_id = a.id " +
+                    "where a.id in (:ids)";
+
+    private static final String SELECT_HISTORY =
+            "select id, archived_at, animal_id, animal_name, animal_type, animal_age, animal_gender, adopter_id, " +
+                    "adopter_username, adoption_request_id, adoption_request_user_id, adoption_request_status " +
+                    "from adoption_history ";
+
+    private static final RowMapper<AdoptionHistoryDto> HISTORY_ROW = (rs, rowNum) -> new AdoptionHistoryDto(
+            rs.getLong("id"),
+            rs.getTimestamp("archived_at").toLocalDateTime(),
+            rs.getInt("animal_id"),
+            rs.getString("animal_name"),
+            rs.getString("animal_type"),
+            rs.getObject("animal_age", Integer.class),
+            rs.getString("animal_gender"),
+            rs.getObject("adopter_id", Integer.class),
+            rs.getString("adopter_username"),
+            rs.getObject("adoption_request_id", Long.class),
+            rs.getObject("adoption_request_user_id", Integer.class),
+            rs.getString("adoption_request_status"));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final CacheInvalidationService cacheInvalidation;
+    private final StatsService stats;
+    private final WaitlistService waitlistService;
+    private final boolean partitioned;
+    private final int batchSize;
+    private final int monthsAhead;
+    private final int maxPageSize;
+    private final Counter archived;
+
+    public AdoptionArchiveService(JdbcTemplate jdbcTemplate,
+                                  CacheInvalidationService cacheInvalidation,
+                                  StatsService stats,
+                                  WaitlistService waitlistService,
+                                  DataSourceProperties dataSourceProperties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.archive.batch-size:500}") int batchSize,
+                                  @Value("${app.archive.partition-months-ahead:2}") int monthsAhead,
+                                  @Value("${app.archive.max-page-size:1000}") int maxPageSize) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.cacheInvalidation = cacheInvalidation;
+        this.stats = stats;
+        this.waitlistService = waitlistService;
+        // Partitions only exist on Postgres (tests and benchmarks run on H2 with a plain table)
+        String url = dataSourceProperties.determineUrl();
+        this.partitioned = url != null && url.startsWith("jdbc:postgresql:");
+        this.batchSize = batchSize;
+        this.monthsAhead = monthsAhead;
+        this.maxPageSize = maxPageSize;
+        this.archived = Counter.builder("adoption.archive.animals").register(meterRegistry);
+    }
+
+    // Returns the number of animals archived; ids that no longer exist are skipped
+    @Transactional
+    public int archive(Collection<Integer> animalIds) {
+        long start = System.nanoTime();
+        List<Integer> ids = animalIds.stream().distinct().toList();
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<Long> requestIds = new ArrayList<>();
+        int animals = 0;
+        int rows = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            MapSqlParameterSource batch = new MapSqlParameterSource()
+                    .addValue("ids", ids.subList(from, Math.min(ids.size(), from + batchSize)))
+                    .addValue("archivedAt", archivedAt);
+            jdbc.query("select id, status from adoption_request where animal_id in (:ids)", batch, rs -> {
+                requestIds.add(rs.getLong(1));
+                stats.adoptionRequestRemoved(rs.getString(2));
+            });
+            jdbc.query("select type, req from animal where id in (:ids)", batch, rs -> {
+                stats.animalRemoved(rs.getInt(2));
+                stats.animalAdopted(rs.getString(1), YearMonth.from(archivedAt));
+            });
+            rows += jdbc.update(INSERT_HISTORY, batch);
+            jdbc.update("delete from adoption_request where animal_id in (:ids)", batch);
+            animals += jdbc.update("delete from animal where id in (:ids)", batch);
+        }
+
+        // The rows went behind Hibernate's back: evict them here and on the other replicas
+        cacheInvalidation.evictLocallyAndNotify(Animal.class, ids);
+        cacheInvalidation.evictLocallyAndNotify(AdoptionRequest.class, requestIds);
+        forgetAfterCommit(ids);
+        archived.increment(animals);
+        logger.info("event=adoption.archived animals={} historyRows={} tookMs={}",
+                animals, rows, (System.nanoTime() - start) / 1_000_000);
+        return animals;
+    }
+
+    private void forgetAfterCommit(List<Integer> animalIds) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waitlistService.forget(animalIds);
+            }
+        });
+    }
+
+    // Newest first; from and to are optional, and bounding them lets Postgres skip whole partitions
+    @Transactional(readOnly = true)
+    public List<AdoptionHistoryDto> history(LocalDateTime from, LocalDateTime to, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", Math.max(1, Math.min(limit, maxPageSize)));
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("archived_at >= :from");
+            params.addValue("from", from);
+        }
+        if (to != null) {
+            conditions.add("archived_at < :to");
+            params.addValue("to", to);
+        }
+        String where = conditions.isEmpty() ? "" : "where " + String.join(" and ", conditions) + " ";
+        return jdbc.query(SELECT_HISTORY + where + "order by archived_at desc, id desc limit :limit", params, HISTORY_ROW);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AdoptionHistoryDto> animalHistory(int animalId) {
+        return jdbc.query(SELECT_HISTORY + "where animal_id = :animalId order by archived_at desc, id desc",
+                new MapSqlParameterSource("animalId", animalId), HISTORY_ROW);
+    }
+
+    // Creates the partitions for this month and the next months-ahead, so that archiving never
+    // has to fall back to the default partition. Runs at startup and then every check interval.
+    @Scheduled(fixedDelayString = "${app.archive.partition-check-interval-ms:21600000}")
+    public void createPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String partition = String.format("adoption_history_y%dm%02d", month.getYear(), month.getMonthValue());
+            try {
+                jdbc.getJdbcTemplate().execute("create table if not exists " + partition
+                        + " partition of adoption_history for values from ('" + month.atDay(1) + "') to ('"
+                        + month.plusMonths(1).atDay(1) + "')");
+            } catch (DataAccessException e) {
+                // Usually rows for that month already sit in the default partition; they stay readable there
+                partitionFailures.warn("event=adoption_history.partition_failed partition={} message={}",
+                        partition, e.getMessage());
+            }
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.example.Ask.Service;
 import com.example.Ask.Entities.AdoptionRequest;
 import com.example.Ask.Repositories.AdoptionRepository;
 import com.example.Ask.Service.EmailService;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,18 +13,21 @@ import java.util.List;
 public class AdoptionService {
     @Autowired private AdoptionRepository adoptionRepo;
     @Autowired private EmailService emailService;
+    @Autowired private CacheInvalidationService cacheInvalidation;
+    @Autowired private StatsService stats;
 
-    @Transactional
+    // Read-only: served by the replica pool when one is configured
+    @Transactional(readOnly = true)
     public List<AdoptionRequest> getPendingAdoptions() {
-        return adoptionRepo.findAll().stream()
-            .filter(r -> "pending".equals(r.getStatus()))
-            .toList();
+        return adoptionRepo.findByStatus("pending");
     }
 
     @Transactional
     public AdoptionRequest createAdoption(AdoptionRequest req) {
         req.setStatus("pending");
         AdoptionRequest saved = adoptionRepo.save(req);
+        stats.adoptionRequestAdded(saved.getStatus());
+        cacheInvalidation.changed(AdoptionRequest.class, saved.getId());
         if (req.getUser() != null && req.getUser().getEmail() != null) {
             emailService.send(req.getUser().getEmail(), "Adoption Request Submitted",
                 "Your adoption request for animal '" + (req.getAnimal() != null ? req.getAnimal().getName() : "") + "' is pending approval.");
@@ -35,8 +38,11 @@ public class AdoptionService {
     @Transactional
     public void approveAdoption(Long id) {
         AdoptionRequest req = adoptionRepo.findById(id).orElseThrow();
+        stats.adoptionRequestRemoved(req.getStatus());
         req.setStatus("approved");
+        stats.adoptionRequestAdded(req.getStatus());
         adoptionRepo.save(req);
+        cacheInvalidation.changed(AdoptionRequest.class, id);
         if (req.getUser() != null && req.getUser().getEmail() != null) {
             emailService.send(req.getUser().getEmail(), "Adoption Approved",
                 "Your adoption request for animal '" + (req.getAnimal() != null ? req.getAnimal().getName() : "") + "' has been approved!");
@@ -46,17 +52,19 @@ public class AdoptionService {
     @Transactional
     public void denyAdoption(Long id) {
         AdoptionRequest req = adoptionRepo.findById(id).orElseThrow();
+        stats.adoptionRequestRemoved(req.getStatus());
         req.setStatus("denied");
+        stats.adoptionRequestAdded(req.getStatus());
         adoptionRepo.save(req);
+        cacheInvalidation.changed(AdoptionRequest.class, id);
         if (req.getUser() != null && req.getUser().getEmail() != null) {
             emailService.send(req.getUser().getEmail(), "Adoption Denied",
                 "Your adoption request for animal '" + (req.getAnimal() != null ? req.getAnimal().getName() : "") + "' has been denied.");
         }
     }
 
+    @Transactional(readOnly = true)
     public List<AdoptionRequest> getAdoptionsByUsername(String username) {
-        return adoptionRepo.findAll().stream()
-            .filter(a -> a.getUser() != null && username.equals(a.getUser().getUsername()))
-            .toList();
+        return adoptionRepo.findByUserUsername(username);
     }
 } 
\ No newline at end of file
@@ -2,7 +2,7 @@ package com.example.Ask.Service;
 
 import com.example.Ask.Repositories.AnimalRepository;
 import jakarta.persistence.Column;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 import com.example.Ask.Entities.Animal;
 import java.util.List;
@@ -12,19 +12,36 @@ import java.util.List;
 public class AnimalService {
     private AnimalRepository AnimalRepo;
     private AnimalService animalservice;
-    public AnimalService(AnimalRepository AnimalRepo) {
+    private final CacheInvalidationService cacheInvalidation;
+    private final StatsService stats;
+    private final WaitlistService waitlistService;
+    public AnimalService(AnimalRepository AnimalRepo, CacheInvalidationService cacheInvalidation, StatsService stats,
+                         WaitlistService waitlistService) {
         this.AnimalRepo = AnimalRepo;
+        this.cacheInvalidation = cacheInvalidation;
+        this.stats = stats;
+        this.waitlistService = waitlistService;
         this.animalservice = this;
     }
 
-    @Transactional
+    // Read-only: served by the replica pool when one is configured
+    @Transactional(readOnly = true)
     public List<Animal> getAnimals() {
         return AnimalRepo.findAll();
     }
 
+    // req and userId belong to the waitlist: a new animal starts free and an edit keeps the
+    // stored values, read under the row lock the waitlist takes, whatever the caller sent
     @Transactional
     public Animal saveAnimal(Animal animal) {
+        Animal stored = animal.getId() == null ? null : AnimalRepo.findByIdForUpdate(animal.getId()).orElse(null);
+        animal.setReq(stored == null ? 0 : stored.getReq());
+        animal.setUserId(stored == null ? null : stored.getUserId());
         AnimalRepo.save(animal);
+        if (stored == null) {
+            stats.animalAdded(animal.getReq());
+        }
+        cacheInvalidation.changed(Animal.class, animal.getId());
         return animal;
     }
 
@@ -34,13 +51,21 @@ public class AnimalService {
     }
     @Transactional
     public void Delanimal(Animal animal) {
+        waitlistService.discard(animal.getId());
         AnimalRepo.delete(animal);
+        stats.animalRemoved(animal.getReq());
+        cacheInvalidation.changed(Animal.class, animal.getId());
     }
 
 
     @Transactional
     public void delAnimal(Integer id) {
-        AnimalRepo.deleteById(id);
+        AnimalRepo.findById(id).ifPresent(animal -> {
+            waitlistService.discard(id);
+            AnimalRepo.delete(animal);
+            stats.animalRemoved(animal.getReq());
+        });
+        cacheInvalidation.changed(Animal.class, id);
     }
 
 
@@ -0,0 +1,333 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+import com.example.Ask.config.RateLimitedLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Keeps the local caches of every backend replica coherent through Postgres LISTEN/NOTIFY.
+// Services report changed entities; after the transaction commits the ids are queued,
+// coalesced per type and sent as one NOTIFY per flush interval. Every replica LISTENs on a
+// dedicated connection and evicts what the others changed. After a reconnect notifications
+// may have been missed, so the listener drops all cached data instead.
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+    private static final RateLimitedLogger connectionFailures = new RateLimitedLogger(logger, 5, 60_000, 1);
+
+    static final String CHANNEL = "entity_changes";
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String ALL = "*";
+
+    private record EntityType(Class<?> type, Function<String, Object> id) {
+    }
+
+    private static final Map<String, EntityType> TYPES = Map.of(
+            "Animal", new EntityType(Animal.class, Integer::valueOf),
+            "Request", new EntityType(Request.class, Integer::valueOf),
+            "Role", new EntityType(Role.class, Integer::valueOf),
+            "User", new EntityType(User.class, Integer::valueOf),
+            "AdoptionRequest", new EntityType(AdoptionRequest.class, Long::valueOf));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final int maxIdsPerType;
+    private final long listenTimeoutMs;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    // type -> changed ids, or {"*"} once too many ids of that type are pending
+    private final Map<String, Set<String>> pending = new HashMap<>();
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter resyncs;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public CacheInvalidationService(EntityManagerFactory entityManagerFactory,
+                                    JdbcTemplate jdbcTemplate,
+                                    DataSourceProperties dataSourceProperties,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+                                    @Value("${app.cache.invalidation.max-ids-per-type:200}") int maxIdsPerType,
+                                    @Value("${app.cache.invalidation.listen-timeout-ms:10000}") long listenTimeoutMs) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        // LISTEN/NOTIFY is Postgres only (tests and benchmarks run on H2)
+        String url = dataSourceProperties.determineUrl();
+        this.enabled = enabled && url != null && url.startsWith("jdbc:postgresql:");
+        this.maxIdsPerType = maxIdsPerType;
+        this.listenTimeoutMs = listenTimeoutMs;
+        this.sent = Counter.builder("cache.invalidation.sent").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received").register(meterRegistry);
+        this.resyncs = Counter.builder("cache.invalidation.resyncs").register(meterRegistry);
+    }
+
+    // Records that an entity was written; other replicas hear about it once the surrounding
+    // transaction has committed
+    public void changed(Class<?> type, Object id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        String name = type.getSimpleName();
+        String key = id.toString();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(name, key);
+                }
+            });
+        } else {
+            enqueue(name, key);
+        }
+    }
+
+    // For rows written with plain JDBC, behind Hibernate's back: once the transaction commits
+    // they are evicted from this replica's cache, along with any cached query results, and the
+    // other replicas are told to do the same
+    public void evictLocallyAndNotify(Class<?> type, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<?> evicted = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(type, evicted);
+                }
+            });
+        } else {
+            evictLocally(type, evicted);
+        }
+        evicted.forEach(id -> changed(type, id));
+    }
+
+    private void evictLocally(Class<?> type, List<?> ids) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        ids.forEach(id -> evict(cache, type, id));
+        cache.evictQueryRegions();
+    }
+
+    // Every cached entity of the type is stale, e.g. after a snapshot restore
+    public void changedAll(Class<?> type) {
+        if (enabled) {
+            enqueue(type.getSimpleName(), ALL);
+        }
+    }
+
+    private synchronized void enqueue(String type, String id) {
+        Set<String> ids = pending.computeIfAbsent(type, k -> new LinkedHashSet<>());
+        if (ids.contains(ALL)) {
+            return;
+        }
+        ids.add(id);
+        if (id.equals(ALL) || ids.size() > maxIdsPerType) {
+            ids.clear();
+            ids.add(ALL);
+        }
+    }
+
+    private synchronized Map<String, Set<String>> drain() {
+        Map<String, Set<String>> batch = new HashMap<>(pending);
+        pending.clear();
+        return batch;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Set<String>> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (String payload : payloads(batch)) {
+                jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, CHANNEL, payload);
+                sent.increment();
+            }
+        } catch (RuntimeException e) {
+            // Nothing is re-queued: the other replicas still converge through the cache TTLs
+            connectionFailures.warn("event=cache_invalidation.notify_failed message={}", e.getMessage());
+        }
+    }
+
+    // "<node> Type:1,2,3;Type:*", split so that no payload exceeds the NOTIFY limit.
+    // Type names and ids are ASCII, so characters are bytes.
+    private List<String> payloads(Map<String, Set<String>> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (Map.Entry<String, Set<String>> entry : batch.entrySet()) {
+            String type = entry.getKey();
+            boolean open = false;
+            for (String id : entry.getValue()) {
+                if (payload.length() + type.length() + id.length() + 2 > MAX_PAYLOAD_BYTES) {
+                    payloads.add(nodeId + ' ' + payload);
+                    payload.setLength(0);
+                    open = false;
+                }
+                if (open) {
+                    payload.append(',');
+                } else {
+                    if (payload.length() > 0) {
+                        payload.append(';');
+                    }
+                    payload.append(type).append(':');
+                    open = true;
+                }
+                payload.append(id);
+            }
+        }
+        if (payload.length() > 0) {
+            payloads.add(nodeId + ' ' + payload);
+        }
+        return payloads;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("event=cache_invalidation.disabled");
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+                backoffMs = 1000;
+                logger.info("event=cache_invalidation.listening node={}", nodeId);
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) listenTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    } else if (!connection.isValid(5)) {
+                        // A quiet channel says nothing about the socket: check it between waits
+                        throw new SQLException("listen connection is no longer valid");
+                    }
+                }
+            } catch (SQLException e) {
+                connectionFailures.warn("event=cache_invalidation.listen_failed message={} retryInMs={}",
+                        e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    void apply(String payload) {
+        int space = payload.indexOf(' ');
+        if (space < 0 || payload.substring(0, space).equals(nodeId)) {
+            return;
+        }
+        received.increment();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (String part : payload.substring(space + 1).split(";")) {
+            int colon = part.indexOf(':');
+            EntityType type = colon < 0 ? null : TYPES.get(part.substring(0, colon));
+            if (type == null) {
+                continue;
+            }
+            String ids = part.substring(colon + 1);
+            if (ids.equals(ALL)) {
+                cache.evictEntityData(type.type());
+                if (type.type() == User.class) {
+                    cache.evictCollectionData(User.class.getName() + ".roles");
+                }
+                continue;
+            }
+            for (String id : ids.split(",")) {
+                evict(cache, type.type(), type.id().apply(id));
+            }
+        }
+        // Cached query results may list any of the changed rows
+        cache.evictQueryRegions();
+    }
+
+    private static void evict(Cache cache, Class<?> type, Object id) {
+        cache.evictEntityData(type, id);
+        if (type == User.class) {
+            cache.evictCollectionData(User.class.getName() + ".roles", id);
+        }
+    }
+
+    private void resync() {
+        resyncs.increment();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        logger.info("event=cache_invalidation.resync");
+    }
+}
@@ -1,21 +1,45 @@
 package com.example.Ask.Service;
 
+import com.example.Ask.config.RateLimitedLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class EmailService {
 
+    // An unreachable SMTP host fails every send; keep that to a few lines per minute
+    private static final RateLimitedLogger mailFailures =
+            new RateLimitedLogger(LoggerFactory.getLogger(EmailService.class), 5, 60_000, 1);
+
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${app.frontend.url:http://localhost:8081}")
     private String frontendUrl;
 
+    private Timer sentTimer;
+    private Timer failedTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        sentTimer = Timer.builder("mail.send").tag("outcome", "sent").register(meterRegistry);
+        failedTimer = Timer.builder("mail.send").tag("outcome", "failed").register(meterRegistry);
+    }
+
     public void send(String to, String subject, String text) {
+        long start = System.nanoTime();
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom("noreply@petsystem.local");
@@ -23,9 +47,11 @@ public class EmailService {
             message.setSubject(subject);
             message.setText(text);
             mailSender.send(message);
+            sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             // Log the error but don't throw it to avoid breaking the registration
-            System.err.println("Failed to send email to " + to + ": " + e.getMessage());
+            mailFailures.warn("event=mail.failed subject={} message={}", subject, e.getMessage());
         }
     }
 
@@ -48,7 +74,7 @@ public class EmailService {
             
             send(to, subject, text);
         } catch (Exception e) {
-            System.err.println("Failed to send verification email: " + e.getMessage());
+            mailFailures.warn("event=mail.failed kind=verification message={}", e.getMessage());
         }
     }
 
@@ -69,7 +95,7 @@ public class EmailService {
             
             send(to, subject, text);
         } catch (Exception e) {
-            System.err.println("Failed to send login notification: " + e.getMessage());
+            mailFailures.warn("event=mail.failed kind=login_notification message={}", e.getMessage());
         }
     }
 
@@ -92,7 +118,7 @@ public class EmailService {
             
             send(to, subject, text);
         } catch (Exception e) {
-            System.err.println("Failed to send welcome email: " + e.getMessage());
+            mailFailures.warn("event=mail.failed kind=welcome message={}", e.getMessage());
         }
     }
 }
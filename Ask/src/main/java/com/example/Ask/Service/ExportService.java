@@ -0,0 +1,234 @@
+package com.example.Ask.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Full-table exports for reporting, written row by row from a forward-only JDBC cursor.
+// The fetch size makes the driver pull the rows in chunks (Postgres only does this inside a
+// transaction, hence the read-only one), and nothing goes through Hibernate, so heap use does
+// not depend on the table size. Each export holds one pooled connection until it finishes,
+// so only max-concurrent of them may run at once.
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Map<String, String> QUERIES = Map.of(
+            "animals", "select id, name, type, age, gender, req, user_id from animal order by id",
+            "requests", "select id, name, type, age, gender, admin_approved, doc_approved from request order by id",
+            "adoptions", "select ar.id, ar.status, ar.user_id, u.username, ar.animal_id, a.name as animal_name " +
+                    "from adoption_request ar " +
+                    "left join users u on u.id = ar.user_id " +
+                    "left join animal a on a.id = ar.animal_id " +
+                    "order by ar.id",
+            "adoption-history", "select id, archived_at, animal_id, animal_name, animal_type, animal_age, animal_gender, " +
+                    "adopter_id, adopter_username, adoption_request_id, adoption_request_user_id, adoption_request_status " +
+                    "from adoption_history order by archived_at, id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final JsonFactory jsonFactory;
+    private final Semaphore permits;
+
+    public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize,
+                         @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public boolean supports(String dataset) {
+        return QUERIES.containsKey(dataset);
+    }
+
+    // One of the max-concurrent export slots. Closing it more than once releases the slot once,
+    // so both the export and whoever sees the request end without it may close it.
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (open.compareAndSet(true, false)) {
+                permits.release();
+            }
+        }
+    }
+
+    // Returns null without writing anything when max-concurrent exports are already running
+    public Permit tryAcquire() {
+        return permits.tryAcquire() ? new Permit() : null;
+    }
+
+    // Closes the permit when done
+    public void export(String dataset, Format format, OutputStream out, Permit permit) throws IOException {
+        long start = System.nanoTime();
+        try {
+            long rows = readOnly.execute(status -> jdbcTemplate.query(
+                    connection -> connection.prepareStatement(QUERIES.get(dataset),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+                    (ResultSetExtractor<Long>) rs -> {
+                        try {
+                            RowSink sink = format == Format.CSV ? new CsvSink(out) : new NdjsonSink(out);
+                            sink.header(rs.getMetaData());
+                            long count = 0;
+                            while (rs.next()) {
+                                sink.row(rs);
+                                count++;
+                            }
+                            sink.close();
+                            return count;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            logger.info("event=export.done dataset={} format={} rows={} tookMs={}",
+                    dataset, format, rows, (System.nanoTime() - start) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the transaction is rolled back and the cursor closed
+            logger.info("event=export.aborted dataset={} message={}", dataset, e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            permit.close();
+        }
+    }
+
+    private interface RowSink {
+        void header(ResultSetMetaData metadata) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void close() throws IOException;
+    }
+
+    // One JSON object per line, keyed by column label
+    private final class NdjsonSink implements RowSink {
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonSink(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(ResultSetMetaData metadata) throws SQLException {
+            columns = labels(metadata);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.toString());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    // RFC 4180: header line, fields quoted when they contain a comma, quote or line break
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+        private int columns;
+
+        CsvSink(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        }
+
+        @Override
+        public void header(ResultSetMetaData metadata) throws SQLException, IOException {
+            String[] labels = labels(metadata);
+            columns = labels.length;
+            line(labels);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            String[] values = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                Object value = rs.getObject(i + 1);
+                values[i] = value == null ? "" : value.toString();
+            }
+            line(values);
+        }
+
+        private void line(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = values[i];
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static String[] labels(ResultSetMetaData metadata) throws SQLException {
+        String[] labels = new String[metadata.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metadata.getColumnLabel(i + 1).toLowerCase();
+        }
+        return labels;
+    }
+}
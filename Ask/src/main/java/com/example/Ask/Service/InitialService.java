@@ -1,113 +1,214 @@
 package com.example.Ask.Service;
 
-import com.example.Ask.Entities.*;
-import com.example.Ask.Repositories.AnimalRepository;
-import com.example.Ask.Repositories.RequestRepository;
-import com.example.Ask.Repositories.RoleRepository;
-import com.example.Ask.Repositories.UserRepository;
-import jakarta.annotation.PostConstruct;
+import com.example.Ask.Entities.Gender;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+// Seeds the default roles, accounts, animals and requests.
+// Every table is checked with one query for all of its seed rows and only the missing
+// rows are inserted, in one JDBC batch; passwords are hashed only for users that are
+// actually inserted. On an already seeded database this is four selects and no hashing.
 @Service
 public class InitialService {
-    BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-    UserRepository userRepository;
-    UserService userService;
-    RoleRepository roleRepository;
-    AnimalRepository animalRepository;
-    AnimalService animalService;
-    RequestService requestService;
-    RequestRepository requestRepository;
-    public InitialService(UserRepository userRepository, UserService userService, RoleRepository roleRepository, BCryptPasswordEncoder passwordEncoder, AnimalRepository animalRepository, AnimalService animalService, RequestRepository requestRepository, RequestService requestService) {
-        this.userRepository = userRepository;
-        this.userService = userService;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.animalRepository = animalRepository;
-        this.animalService = animalService;
-        this.requestRepository = requestRepository;
-        this.requestService = requestService;
+
+    private static final Logger logger = LoggerFactory.getLogger(InitialService.class);
+
+    private record SeedUser(String username, String email, String password, String role) {
     }
 
-    public void AnimalInitial() {
-        createRequestIfNotFound("Alex", 8, Gender.Male, "Dog");
-        createRequestIfNotFound("Coco", 8, Gender.Male, "Parrot");
+    private record SeedPet(String name, int age, Gender gender, String type) {
+    }
+
+    private static final List<String> ROLES = List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_DOCTOR", "ROLE_SHELTER");
+
+    private static final List<SeedUser> USERS = List.of(
+            new SeedUser("admin", "admin@hua.gr", "admin", "ROLE_ADMIN"),
+            new SeedUser("user", "user@hua.gr", "user", "ROLE_USER"),
+            new SeedUser("doctor", "doctor@hua.gr", "doctor", "ROLE_DOCTOR"),
+            new SeedUser("shelter", "shelter@hua.gr", "shelter", "ROLE_SHELTER"));
+
+    private static final List<SeedPet> ANIMALS = List.of(
+            new SeedPet("Pepper", 2, Gender.Female, "Cat"),
+            new SeedPet("Nova", 1, Gender.Male, "Dog"));
+
+    private static final List<SeedPet> REQUESTS = List.of(
+            new SeedPet("Alex", 8, Gender.Male, "Dog"),
+            new SeedPet("Coco", 8, Gender.Male, "Parrot"));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final StatsService statsService;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Void> seeded = new CompletableFuture<>();
+
+    public InitialService(NamedParameterJdbcTemplate jdbc, BCryptPasswordEncoder passwordEncoder,
+                          PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                          StatsService statsService) {
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.statsService = statsService;
+    }
 
-        createAnimalIfNotFound("Pepper", 2, Gender.Female, "Cat");
-        createAnimalIfNotFound("Nova", 1, Gender.Male, "Dog");
+    // Seeding starts once the application accepts traffic and runs on its own thread,
+    // so neither startup nor the readiness probe waits for it
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::runSeeding, "initial-seed");
+            thread.setDaemon(true);
+            thread.start();
+        }
     }
 
-    private void createRequestIfNotFound(String name, int age, Gender gender, String type) {
-        this.requestRepository.findByName(name).orElseGet(() -> {
-            Request request = new Request();
-            request.setAge(age);
-            request.setGender(gender);
-            request.setType(type);
-            request.setName(name);
-            requestService.saveRequest(request);
-            return null;
-        });
+    // Completes when the seed data is in place (tests and tools that log in as admin wait on it)
+    public CompletableFuture<Void> seeded() {
+        return seeded;
     }
 
-    private void createAnimalIfNotFound(String name, int age, Gender gender, String type) {
-        this.animalRepository.findByName(name).orElseGet(() -> {
-            Animal animal = new Animal();
-            animal.setAge(age);
-            animal.setGender(gender);
-            animal.setType(type);
-            animal.setName(name);
-            animalService.saveAnimal(animal);
-            return null;
-        });
+    private void runSeeding() {
+        try {
+            try {
+                init();
+            } catch (DataIntegrityViolationException e) {
+                // Another replica seeded the same rows concurrently; what is left is now visible
+                logger.info("event=seed.retry reason={}", e.getMostSpecificCause().getMessage());
+                init();
+            }
+            seeded.complete(null);
+        } catch (RuntimeException e) {
+            logger.error("event=seed.failed", e);
+            seeded.completeExceptionally(e);
+        }
     }
-@PostConstruct
+
     public void init() {
-        this.AnimalInitial();
-        // Create initial roles if not exist
-        Role adminRole = roleRepository.findByName("ROLE_ADMIN").orElseGet(() -> roleRepository.save(new Role("ROLE_ADMIN")));
-        Role userRole = roleRepository.findByName("ROLE_USER").orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
-        Role doctorRole = roleRepository.findByName("ROLE_DOCTOR").orElseGet(() -> roleRepository.save(new Role("ROLE_DOCTOR")));
-        Role shelterRole = roleRepository.findByName("ROLE_SHELTER").orElseGet(() -> roleRepository.save(new Role("ROLE_SHELTER")));
-        // Create initial admin and user if not exist
-        userRepository.findByUsername("admin").orElseGet(() -> {
-            User admin = new User("admin", "admin@hua.gr", passwordEncoder.encode("admin"));
-            Set<Role> roles = new HashSet<>();
-            roles.add(adminRole);
-            admin.setRoles(roles);
-            admin.setEmailVerified(true);
-            userRepository.save(admin);
-            return admin;
-        });
-        userRepository.findByUsername("user").orElseGet(() -> {
-            User user = new User("user", "user@hua.gr", passwordEncoder.encode("user"));
-            Set<Role> roles = new HashSet<>();
-            roles.add(userRole);
-            user.setRoles(roles);
-            user.setEmailVerified(true);
-            userRepository.save(user);
-            return user;
-        });
-        userRepository.findByUsername("doctor").orElseGet(() -> {
-            User doctor = new User("doctor", "doctor@hua.gr", passwordEncoder.encode("doctor"));
-            Set<Role> roles = new HashSet<>();
-            roles.add(doctorRole);
-            doctor.setRoles(roles);
-            doctor.setEmailVerified(true);
-            userRepository.save(doctor);
-            return doctor;
-        });
-        userRepository.findByUsername("shelter").orElseGet(() -> {
-            User shelter = new User("shelter", "shelter@hua.gr", passwordEncoder.encode("shelter"));
-            Set<Role> roles = new HashSet<>();
-            roles.add(shelterRole);
-            shelter.setRoles(roles);
-            shelter.setEmailVerified(true);
-            userRepository.save(shelter);
-            return shelter;
-        });
+        long start = System.nanoTime();
+        int inserted = transactionTemplate.execute(status ->
+                seedRoles() + seedUsers()
+                        + seedPets("animal", "insert into animal (name, age, gender, type, req) " +
+                        "values (:name, :age, :gender, :type, 0)", ANIMALS)
+                        + seedPets("request", "insert into request (name, age, gender, type, admin_approved, doc_approved) " +
+                        "values (:name, :age, :gender, :type, 0, 0)", REQUESTS));
+        if (inserted > 0) {
+            // The rows were written over plain JDBC, which Hibernate's caches do not see: drop
+            // anything cached before seeding (e.g. an empty findByUsername("admin") result)
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            // Nor do the dashboard counters
+            try {
+                statsService.rebuild();
+            } catch (DataAccessException e) {
+                logger.warn("event=seed.stats_rebuild_failed message={}", e.getMessage());
+            }
+        }
+        logger.info("event=seed.done inserted={} tookMs={}", inserted, (System.nanoTime() - start) / 1_000_000);
     }
-}
 
+    private int seedRoles() {
+        Set<String> existing = new HashSet<>(jdbc.queryForList(
+                "select name from roles where name in (:names)", Map.of("names", ROLES), String.class));
+        List<SqlParameterSource> rows = ROLES.stream()
+                .filter(name -> !existing.contains(name))
+                .map(name -> (SqlParameterSource) new MapSqlParameterSource("name", name))
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate("insert into roles (name) values (:name)", rows.toArray(new SqlParameterSource[0]));
+        }
+        return rows.size();
+    }
+
+    private int seedUsers() {
+        List<String> usernames = USERS.stream().map(SeedUser::username).toList();
+        List<String> emails = USERS.stream().map(SeedUser::email).toList();
+        Set<String> taken = new HashSet<>();
+        jdbc.query("select username, email from users where username in (:usernames) or email in (:emails)",
+                Map.of("usernames", usernames, "emails", emails),
+                rs -> {
+                    taken.add(rs.getString(1));
+                    taken.add(rs.getString(2));
+                });
+        List<SeedUser> missing = USERS.stream()
+                .filter(u -> !taken.contains(u.username()) && !taken.contains(u.email()))
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] users = missing.stream()
+                .map(u -> new MapSqlParameterSource()
+                        .addValue("username", u.username())
+                        .addValue("email", u.email())
+                        .addValue("password", passwordEncoder.encode(u.password()))
+                        .addValue("createdAt", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate("insert into users (username, email, password, email_verified, created_at) " +
+                "values (:username, :email, :password, true, :createdAt)", users);
+
+        Map<String, Integer> userIds = ids("select id, username from users where username in (:names)",
+                missing.stream().map(SeedUser::username).toList());
+        Map<String, Integer> roleIds = ids("select id, name from roles where name in (:names)", ROLES);
+        SqlParameterSource[] links = missing.stream()
+                .map(u -> new MapSqlParameterSource()
+                        .addValue("userId", userIds.get(u.username()))
+                        .addValue("roleId", roleIds.get(u.role())))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate("insert into user_roles (user_id, role_id) values (:userId, :roleId)", links);
+        return missing.size();
+    }
+
+    // animal and request are both looked up by name
+    private int seedPets(String table, String insert, List<SeedPet> pets) {
+        Set<String> existing = new HashSet<>(jdbc.queryForList(
+                "select name from " + table + " where name in (:names)",
+                Map.of("names", pets.stream().map(SeedPet::name).toList()), String.class));
+        SqlParameterSource[] rows = pets.stream()
+                .filter(p -> !existing.contains(p.name()))
+                .map(p -> new MapSqlParameterSource()
+                        .addValue("name", p.name())
+                        .addValue("age", p.age())
+                        .addValue("gender", p.gender().name())
+                        .addValue("type", p.type()))
+                .toArray(SqlParameterSource[]::new);
+        if (rows.length == 0) {
+            return 0;
+        }
+        jdbc.batchUpdate(insert, rows);
+        return rows.length;
+    }
+
+    private Map<String, Integer> ids(String sql, List<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbc.query(sql, Map.of("names", names), (RowCallbackHandler) rs -> ids.put(rs.getString(2), rs.getInt(1)));
+        return ids;
+    }
+}
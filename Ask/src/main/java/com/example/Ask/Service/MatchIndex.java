@@ -0,0 +1,317 @@
+package com.example.Ask.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Immutable snapshot for adopter/animal matching, held in primitive arrays: the candidate
+// animals (type, age, gender) and, per user, what the animals they asked for looked like.
+// A user's score for an animal is a weighted sum of how often they went for its type, its
+// gender and an age near theirs. Every user is smoothed towards the overall mix, so a user
+// with no history gets the popular picks.
+//
+// A ranking first turns the user's profile into three small lookup tables, so scoring one
+// animal is three array reads. Large candidate sets are split across a fork/join pool; each
+// slice keeps its own top-k heap and the heaps are merged on the way back.
+public final class MatchIndex {
+
+    static final int MAX_AGE = 30;
+    static final int GENDERS = 3;
+
+    private static final float TYPE_WEIGHT = 0.6f;
+    private static final float AGE_WEIGHT = 0.25f;
+    private static final float GENDER_WEIGHT = 0.15f;
+    // Weight of the overall mix, in requests, when smoothing a user's own history
+    private static final float PRIOR = 2f;
+    private static final float AGE_SCALE = 3f;
+    private static final int SLICE = 16_384;
+
+    private final int[] animalIds;
+    private final int[] animalTypes;
+    private final byte[] animalAges;
+    private final byte[] animalGenders;
+    private final int types;
+
+    private final int[] userIds;
+    private final float[] userTypeCounts;
+    private final float[] userGenderCounts;
+    private final float[] userAgeSums;
+    private final float[] userRequests;
+
+    private final float[] globalTypeShare;
+    private final float[] globalGenderShare;
+    private final float globalMeanAge;
+
+    private MatchIndex(Builder builder) {
+        int animals = builder.animalIds.size();
+        this.animalIds = new int[animals];
+        this.animalTypes = new int[animals];
+        this.animalAges = new byte[animals];
+        this.animalGenders = new byte[animals];
+        Integer[] order = new Integer[animals];
+        for (int i = 0; i < animals; i++) {
+            order[i] = i;
+        }
+        // Sorted by id, so that ties go to the animal listed first
+        Arrays.sort(order, (a, b) -> Integer.compare(builder.animalIds.get(a), builder.animalIds.get(b)));
+        for (int i = 0; i < animals; i++) {
+            int from = order[i];
+            animalIds[i] = builder.animalIds.get(from);
+            long features = builder.animalFeatures.get(from);
+            animalTypes[i] = (int) (features >>> 16);
+            animalAges[i] = (byte) (features >>> 8);
+            animalGenders[i] = (byte) features;
+        }
+        this.types = Math.max(1, builder.typeIds.size());
+
+        int[] users = builder.interests.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        this.userIds = users;
+        this.userTypeCounts = new float[users.length * types];
+        this.userGenderCounts = new float[users.length * GENDERS];
+        this.userAgeSums = new float[users.length];
+        this.userRequests = new float[users.length];
+        float[] typeTotals = new float[types];
+        float[] genderTotals = new float[GENDERS];
+        float ageTotal = 0;
+        float requests = 0;
+        for (int u = 0; u < users.length; u++) {
+            for (long features : builder.interests.get(users[u])) {
+                int type = (int) (features >>> 16);
+                int age = (int) (features >>> 8) & 0xff;
+                int gender = (int) features & 0xff;
+                userTypeCounts[u * types + type]++;
+                userGenderCounts[u * GENDERS + gender]++;
+                userAgeSums[u] += age;
+                userRequests[u]++;
+                typeTotals[type]++;
+                genderTotals[gender]++;
+                ageTotal += age;
+                requests++;
+            }
+        }
+        this.globalTypeShare = new float[types];
+        this.globalGenderShare = new float[GENDERS];
+        for (int t = 0; t < types; t++) {
+            globalTypeShare[t] = requests == 0 ? 1f / types : typeTotals[t] / requests;
+        }
+        for (int g = 0; g < GENDERS; g++) {
+            globalGenderShare[g] = requests == 0 ? 1f / GENDERS : genderTotals[g] / requests;
+        }
+        this.globalMeanAge = requests == 0 ? 0 : ageTotal / requests;
+    }
+
+    public static MatchIndex empty() {
+        return new Builder().build();
+    }
+
+    public int animals() {
+        return animalIds.length;
+    }
+
+    public int users() {
+        return userIds.length;
+    }
+
+    // Ids of the k best animals for the user, best first
+    public int[] top(int userId, int k, ForkJoinPool pool) {
+        if (k <= 0 || animalIds.length == 0) {
+            return new int[0];
+        }
+        Profile profile = profile(userId);
+        TopK best = animalIds.length <= SLICE
+                ? score(profile, 0, animalIds.length, k)
+                : pool.invoke(new Slice(profile, 0, animalIds.length, k));
+        int[] ranked = best.sortedIndexes();
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = animalIds[ranked[i]];
+        }
+        return ranked;
+    }
+
+    private record Profile(float[] typeScore, float[] ageScore, float[] genderScore) {
+    }
+
+    private Profile profile(int userId) {
+        int u = Arrays.binarySearch(userIds, userId);
+        float requests = u < 0 ? 0 : userRequests[u];
+        float total = requests + PRIOR;
+        float[] typeScore = new float[types];
+        for (int t = 0; t < types; t++) {
+            float own = u < 0 ? 0 : userTypeCounts[u * types + t];
+            typeScore[t] = TYPE_WEIGHT * (own + PRIOR * globalTypeShare[t]) / total;
+        }
+        float[] genderScore = new float[GENDERS];
+        for (int g = 0; g < GENDERS; g++) {
+            float own = u < 0 ? 0 : userGenderCounts[u * GENDERS + g];
+            genderScore[g] = GENDER_WEIGHT * (own + PRIOR * globalGenderShare[g]) / total;
+        }
+        float meanAge = ((u < 0 ? 0 : userAgeSums[u]) + PRIOR * globalMeanAge) / total;
+        float[] ageScore = new float[MAX_AGE + 1];
+        for (int age = 0; age <= MAX_AGE; age++) {
+            ageScore[age] = AGE_WEIGHT / (1 + Math.abs(age - meanAge) / AGE_SCALE);
+        }
+        return new Profile(typeScore, ageScore, genderScore);
+    }
+
+    private TopK score(Profile profile, int from, int to, int k) {
+        float[] typeScore = profile.typeScore();
+        float[] ageScore = profile.ageScore();
+        float[] genderScore = profile.genderScore();
+        TopK best = new TopK(k);
+        for (int i = from; i < to; i++) {
+            best.offer(typeScore[animalTypes[i]] + ageScore[animalAges[i]] + genderScore[animalGenders[i]], i);
+        }
+        return best;
+    }
+
+    private final class Slice extends RecursiveTask<TopK> {
+        private final Profile profile;
+        private final int from;
+        private final int to;
+        private final int k;
+
+        Slice(Profile profile, int from, int to, int k) {
+            this.profile = profile;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= SLICE) {
+                return score(profile, from, to, k);
+            }
+            int middle = (from + to) >>> 1;
+            Slice left = new Slice(profile, from, middle, k);
+            left.fork();
+            TopK right = new Slice(profile, middle, to, k).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Bounded min-heap of (score, index): the root is the worst of the best k seen so far.
+    // Between equal scores the lower index ranks higher.
+    static final class TopK {
+        private final float[] scores;
+        private final int[] indexes;
+        private int size;
+
+        TopK(int k) {
+            this.scores = new float[k];
+            this.indexes = new int[k];
+        }
+
+        void offer(float score, int index) {
+            if (size < scores.length) {
+                scores[size] = score;
+                indexes[size] = index;
+                siftUp(size++);
+            } else if (better(score, index, scores[0], indexes[0])) {
+                scores[0] = score;
+                indexes[0] = index;
+                siftDown(0);
+            }
+        }
+
+        TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.indexes[i]);
+            }
+            return this;
+        }
+
+        int[] sortedIndexes() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> better(scores[a], indexes[a], scores[b], indexes[b]) ? -1
+                    : better(scores[b], indexes[b], scores[a], indexes[a]) ? 1 : 0);
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = indexes[order[i]];
+            }
+            return sorted;
+        }
+
+        private static boolean better(float score, int index, float otherScore, int otherIndex) {
+            return score > otherScore || (score == otherScore && index < otherIndex);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(scores[parent], indexes[parent], scores[i], indexes[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (better(scores[worst], indexes[worst], scores[child], indexes[child])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            int index = indexes[a];
+            indexes[a] = indexes[b];
+            indexes[b] = index;
+        }
+    }
+
+    // Collects rows before they are packed into arrays. Types are matched case-insensitively;
+    // ages are clamped to 0..MAX_AGE and an unknown gender is its own value.
+    public static final class Builder {
+        private final Map<String, Integer> typeIds = new HashMap<>();
+        private final List<Integer> animalIds = new ArrayList<>();
+        private final List<Long> animalFeatures = new ArrayList<>();
+        private final Map<Integer, List<Long>> interests = new HashMap<>();
+
+        // A candidate: an animal that can still be requested
+        public Builder animal(int id, String type, int age, String gender) {
+            animalIds.add(id);
+            animalFeatures.add(features(type, age, gender));
+            return this;
+        }
+
+        // An animal the user asked for, whatever became of the request
+        public Builder interest(int userId, String type, int age, String gender) {
+            interests.computeIfAbsent(userId, k -> new ArrayList<>()).add(features(type, age, gender));
+            return this;
+        }
+
+        public MatchIndex build() {
+            return new MatchIndex(this);
+        }
+
+        private long features(String type, int age, String gender) {
+            String key = type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+            int typeId = typeIds.computeIfAbsent(key, k -> typeIds.size());
+            int clampedAge = Math.max(0, Math.min(MAX_AGE, age));
+            int genderId = "Male".equals(gender) ? 0 : "Female".equals(gender) ? 1 : 2;
+            return ((long) typeId << 16) | ((long) clampedAge << 8) | genderId;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.Repositories.AnimalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Recommended animals per user. The MatchIndex is rebuilt from the tables every refresh
+// interval and swapped in whole, so a ranking never waits on the database or on a rebuild.
+// A user's history is every adoption request they filed, plus the adoption_history rows of
+// the last history-months (a bounded range, so Postgres only scans those partitions).
+//
+// Animals requested since the last rebuild may still rank: the top candidates are re-read by
+// id and the ones no longer available dropped, which is why a ranking asks for twice the limit.
+@Service
+public class MatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnimalRepository animalRepository;
+    private final ForkJoinPool pool;
+    private final int maxLimit;
+    private final int historyMonths;
+    private final Timer recommendTimer;
+    private final Timer rebuildTimer;
+    private volatile MatchIndex index = MatchIndex.empty();
+
+    public MatchService(JdbcTemplate jdbcTemplate, AnimalRepository animalRepository, MeterRegistry meterRegistry,
+                        @Value("${app.match.parallelism:0}") int parallelism,
+                        @Value("${app.match.max-limit:50}") int maxLimit,
+                        @Value("${app.match.history-months:24}") int historyMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.animalRepository = animalRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxLimit = maxLimit;
+        this.historyMonths = historyMonths;
+        this.recommendTimer = Timer.builder("match.recommend").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("match.rebuild").register(meterRegistry);
+        meterRegistry.gauge("match.index.animals", this, service -> service.index.animals());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnimalDto> recommend(int userId, int limit) {
+        long start = System.nanoTime();
+        int wanted = Math.max(1, Math.min(limit, maxLimit));
+        int[] ranked = index.top(userId, 2 * wanted, pool);
+        List<AnimalDto> recommended = new ArrayList<>(wanted);
+        if (ranked.length > 0) {
+            Map<Integer, AnimalDto> available = animalRepository
+                    .findAvailableDtosByIdIn(Arrays.stream(ranked).boxed().toList()).stream()
+                    .collect(Collectors.toMap(AnimalDto::id, Function.identity()));
+            for (int id : ranked) {
+                AnimalDto animal = available.get(id);
+                if (animal != null && recommended.size() < wanted) {
+                    recommended.add(animal);
+                }
+            }
+        }
+        recommendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return recommended;
+    }
+
+    @Scheduled(fixedDelayString = "${app.match.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        MatchIndex.Builder builder = new MatchIndex.Builder();
+        jdbcTemplate.query("select id, type, age, gender from animal where req = 0", rs -> {
+            builder.animal(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getString(4));
+        });
+        jdbcTemplate.query("select ar.user_id, a.type, a.age, a.gender from adoption_request ar " +
+                "join animal a on a.id = ar.animal_id where ar.user_id is not null", rs -> {
+            builder.interest(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getString(4));
+        });
+        jdbcTemplate.query("select coalesce(adoption_request_user_id, adopter_id), animal_type, animal_age, animal_gender " +
+                "from adoption_history where archived_at >= ? " +
+                "and coalesce(adoption_request_user_id, adopter_id) is not null", rs -> {
+            builder.interest(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getString(4));
+        }, Timestamp.valueOf(LocalDateTime.now().minusMonths(historyMonths)));
+        MatchIndex built = builder.build();
+        index = built;
+        long tookNanos = System.nanoTime() - start;
+        rebuildTimer.record(tookNanos, TimeUnit.NANOSECONDS);
+        logger.debug("event=match.index_built animals={} users={} tookMs={}",
+                built.animals(), built.users(), tookNanos / 1_000_000);
+    }
+}
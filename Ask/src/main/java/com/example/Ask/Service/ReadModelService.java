@@ -0,0 +1,53 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.Dto.RequestDto;
+import com.example.Ask.Dto.RoleDto;
+import com.example.Ask.Dto.UserDto;
+import com.example.Ask.Repositories.AnimalRepository;
+import com.example.Ask.Repositories.RequestRepository;
+import com.example.Ask.Repositories.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read side of the list endpoints: DTOs built from projection queries, so no entity is
+// loaded, tracked or lazily initialised just to be serialized
+@Service
+@Transactional(readOnly = true)
+public class ReadModelService {
+
+    private final AnimalRepository animalRepository;
+    private final RequestRepository requestRepository;
+    private final UserRepository userRepository;
+
+    public ReadModelService(AnimalRepository animalRepository, RequestRepository requestRepository,
+                            UserRepository userRepository) {
+        this.animalRepository = animalRepository;
+        this.requestRepository = requestRepository;
+        this.userRepository = userRepository;
+    }
+
+    public List<AnimalDto> animals() {
+        return animalRepository.findAllDtos();
+    }
+
+    public List<RequestDto> requests() {
+        return requestRepository.findAllDtos();
+    }
+
+    public List<UserDto> users() {
+        Map<Integer, List<RoleDto>> roles = new HashMap<>();
+        for (Object[] row : userRepository.findAllRoleAssignments()) {
+            roles.computeIfAbsent((Integer) row[0], k -> new ArrayList<>())
+                    .add(new RoleDto((Integer) row[1], (String) row[2]));
+        }
+        return userRepository.findAllDtos().stream()
+                .map(user -> user.withRoles(roles.getOrDefault(user.id(), List.of())))
+                .toList();
+    }
+}
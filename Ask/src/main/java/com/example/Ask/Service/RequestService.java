@@ -4,7 +4,7 @@ import com.example.Ask.Entities.Animal;
 import com.example.Ask.Repositories.AnimalRepository;
 import com.example.Ask.Repositories.RequestRepository;
 import jakarta.persistence.Column;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 import com.example.Ask.Entities.Request;
 import java.util.List;
@@ -13,21 +13,34 @@ public class RequestService {
     private final AnimalService animalService;
     private RequestRepository requestRepository;
     private RequestService requestService;
+    private final CacheInvalidationService cacheInvalidation;
+    private final StatsService stats;
 
-    public RequestService(RequestRepository requestRepository, AnimalService animalService) {
+    public RequestService(RequestRepository requestRepository, AnimalService animalService,
+                          CacheInvalidationService cacheInvalidation, StatsService stats) {
+        this.cacheInvalidation = cacheInvalidation;
+        this.stats = stats;
         this.requestRepository = requestRepository;
         this.requestService = this;
         this.animalService = animalService;
     }
 
-    @Transactional
+    // Read-only: served by the replica pool when one is configured
+    @Transactional(readOnly = true)
     public List<Request> getRequests() {
         return requestRepository.findAll();
     }
 
     @Transactional
     public Request saveRequest(Request request) {
+        // Loaded anyway by the merge below; read the previous flags before they are overwritten
+        Request previous = request.getId() == null ? null : requestRepository.findById(request.getId()).orElse(null);
+        if (previous != null) {
+            stats.requestRemoved(previous.getAdminApproved(), previous.getDocApproved());
+        }
         requestRepository.save(request);
+        stats.requestAdded(request.getAdminApproved(), request.getDocApproved());
+        cacheInvalidation.changed(Request.class, request.getId());
         return request;
     }
 
@@ -37,7 +50,12 @@ public class RequestService {
     }
     @Transactional
     public void DelRequest(Request request) {
-        requestRepository.delete(request);
+        // The stored flags, not the ones an approval just set on the detached copy
+        requestRepository.findById(request.getId()).ifPresent(stored -> {
+            requestRepository.delete(stored);
+            stats.requestRemoved(stored.getAdminApproved(), stored.getDocApproved());
+        });
+        cacheInvalidation.changed(Request.class, request.getId());
     }
 
 
@@ -60,4 +78,25 @@ public class RequestService {
             }
 
 }
+
+    // One review step on the stored request: sets the doctor's or the admin's flag and, once
+    // both are set, turns the request into an animal. Returns null if the request is gone.
+    // The row is locked first, so a doctor and an admin approving at once cannot lose a flag.
+    @Transactional
+    public Request approve(Integer id, boolean doctor) {
+        Request request = requestRepository.findByIdForUpdate(id).orElse(null);
+        if (request == null) {
+            return null;
+        }
+        stats.requestRemoved(request.getAdminApproved(), request.getDocApproved());
+        if (doctor) {
+            request.setDocApproved(1);
+        } else {
+            request.setAdminApproved(1);
+        }
+        stats.requestAdded(request.getAdminApproved(), request.getDocApproved());
+        requestService.CheckRequest(request);
+        cacheInvalidation.changed(Request.class, id);
+        return request;
+    }
 }
@@ -0,0 +1,157 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.Request;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Hands out the requests waiting for a review step to doctors and admins, a batch at a time.
+// A claim selects the lowest waiting ids with FOR UPDATE SKIP LOCKED, so reviewers claiming at
+// the same moment get disjoint batches instead of queueing on each other's row locks, and
+// stamps them with the reviewer and a lease. A lease that runs out puts the request back in the
+// queue; the sweep only clears the stale columns. Approving through the queue requires a live
+// lease, and the plain approve endpoints refuse requests someone else holds.
+@Service
+public class ReviewQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewQueueService.class);
+
+    public enum Stage {
+        DOCTOR("doc"), ADMIN("admin");
+
+        private final String flag;
+        private final String claimedBy;
+        private final String expiresAt;
+
+        Stage(String prefix) {
+            this.flag = prefix + "_approved";
+            this.claimedBy = prefix + "_claimed_by";
+            this.expiresAt = prefix + "_claim_expires_at";
+        }
+    }
+
+    public record Claim(List<Integer> ids, LocalDateTime leaseExpiresAt) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final RequestService requestService;
+    private final long leaseMs;
+    private final int maxBatch;
+    private final Counter claimed;
+    private final Counter expired;
+
+    public ReviewQueueService(JdbcTemplate jdbcTemplate, RequestService requestService, MeterRegistry meterRegistry,
+                              @Value("${app.review.lease-ms:300000}") long leaseMs,
+                              @Value("${app.review.max-batch:20}") int maxBatch) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.requestService = requestService;
+        this.leaseMs = leaseMs;
+        this.maxBatch = maxBatch;
+        this.claimed = Counter.builder("review.queue.claimed").register(meterRegistry);
+        this.expired = Counter.builder("review.queue.expired").register(meterRegistry);
+    }
+
+    // The reviewer's live claims come back as well, with a renewed lease, so polling again
+    // after a lost response does not strand them
+    @Transactional
+    public Claim claim(Stage stage, String reviewer, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(leaseMs * 1_000_000);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("reviewer", reviewer)
+                .addValue("now", now)
+                .addValue("expiresAt", expiresAt)
+                .addValue("limit", Math.max(1, Math.min(limit, maxBatch)));
+        List<Integer> ids = jdbc.queryForList("select id from request where " + stage.flag + " = 0 " +
+                "and (" + stage.claimedBy + " = :reviewer or " + stage.expiresAt + " is null or " + stage.expiresAt + " < :now) " +
+                "order by id limit :limit for update skip locked", params, Integer.class);
+        if (!ids.isEmpty()) {
+            jdbc.update("update request set " + stage.claimedBy + " = :reviewer, " + stage.expiresAt + " = :expiresAt " +
+                    "where id in (:ids)", params.addValue("ids", ids));
+            claimed.increment(ids.size());
+        }
+        return new Claim(ids, expiresAt);
+    }
+
+    // Extends the lease on the given requests the reviewer still holds; returns those ids
+    @Transactional
+    public Claim renew(Stage stage, String reviewer, List<Integer> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(leaseMs * 1_000_000);
+        if (ids.isEmpty()) {
+            return new Claim(List.of(), expiresAt);
+        }
+        MapSqlParameterSource params = held(reviewer, ids, now).addValue("expiresAt", expiresAt);
+        List<Integer> renewed = jdbc.queryForList("select id from request where id in (:ids) and "
+                + stage.claimedBy + " = :reviewer and " + stage.expiresAt + " >= :now for update", params, Integer.class);
+        if (!renewed.isEmpty()) {
+            jdbc.update("update request set " + stage.expiresAt + " = :expiresAt where id in (:renewed)",
+                    params.addValue("renewed", renewed));
+        }
+        return new Claim(renewed, expiresAt);
+    }
+
+    @Transactional
+    public int release(Stage stage, String reviewer, List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbc.update("update request set " + stage.claimedBy + " = null, " + stage.expiresAt + " = null " +
+                "where id in (:ids) and " + stage.claimedBy + " = :reviewer", held(reviewer, ids, LocalDateTime.now()));
+    }
+
+    // Approves one step of a request the reviewer holds a live lease on. Returns null without
+    // changing anything when the lease is not the reviewer's (never claimed, expired or taken over).
+    @Transactional
+    public Request approve(Stage stage, String reviewer, Integer id) {
+        int released = jdbc.update("update request set " + stage.claimedBy + " = null, " + stage.expiresAt + " = null " +
+                        "where id in (:ids) and " + stage.claimedBy + " = :reviewer and " + stage.expiresAt + " >= :now",
+                held(reviewer, List.of(id), LocalDateTime.now()));
+        if (released == 0) {
+            return null;
+        }
+        return requestService.approve(id, stage == Stage.DOCTOR);
+    }
+
+    // True while another reviewer holds a live lease on the request's step. Not read-only, so
+    // it is answered by the primary rather than a lagging replica.
+    @Transactional
+    public boolean claimedByOther(Stage stage, String reviewer, Integer id) {
+        Integer others = jdbc.queryForObject("select count(*) from request where id in (:ids) and "
+                        + stage.claimedBy + " <> :reviewer and " + stage.expiresAt + " >= :now",
+                held(reviewer, List.of(id), LocalDateTime.now()), Integer.class);
+        return others != null && others > 0;
+    }
+
+    private static MapSqlParameterSource held(String reviewer, List<Integer> ids, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("reviewer", reviewer)
+                .addValue("now", now);
+    }
+
+    // Expired leases are already claimable; this only clears them so the columns show who is working
+    @Scheduled(fixedDelayString = "${app.review.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Stage stage : Stage.values()) {
+            int cleared = jdbc.update("update request set " + stage.claimedBy + " = null, " + stage.expiresAt + " = null " +
+                    "where " + stage.expiresAt + " < :now", new MapSqlParameterSource("now", now));
+            if (cleared > 0) {
+                expired.increment(cleared);
+                logger.info("event=review.leases_expired stage={} requests={}", stage, cleared);
+            }
+        }
+    }
+}
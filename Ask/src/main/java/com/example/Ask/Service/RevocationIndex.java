@@ -0,0 +1,124 @@
+package com.example.Ask.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// In-memory set of revoked token ids, bucketed by token expiry.
+// Each bucket has a small Bloom filter in front of an exact set, so the common
+// "not revoked" answer is a few bit probes and never touches the set.
+// Once a bucket's window has passed every token in it is expired anyway and the
+// whole bucket is dropped in one step.
+public class RevocationIndex {
+
+    private final long bucketMillis;
+    private final int bitsMask;
+    private final int hashes;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RevocationIndex(long bucketMillis, int bitsPerBucket, int hashes) {
+        if (Integer.bitCount(bitsPerBucket) != 1) {
+            throw new IllegalArgumentException("bitsPerBucket must be a power of two");
+        }
+        this.bucketMillis = bucketMillis;
+        this.bitsMask = bitsPerBucket - 1;
+        this.hashes = hashes;
+    }
+
+    public void add(String jti, long expiresAtMillis) {
+        Bucket bucket = buckets.computeIfAbsent(expiresAtMillis / bucketMillis, k -> new Bucket(bitsMask + 1));
+        long h = hash(jti);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & bitsMask;
+            bucket.setBit(bit);
+        }
+        bucket.exact.add(jti);
+    }
+
+    public boolean isRevoked(String jti, long expiresAtMillis) {
+        Bucket bucket = buckets.get(expiresAtMillis / bucketMillis);
+        if (bucket == null) {
+            return false;
+        }
+        long h = hash(jti);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & bitsMask;
+            if (!bucket.hasBit(bit)) {
+                return false;
+            }
+        }
+        return bucket.exact.contains(jti);
+    }
+
+    // Drops every bucket whose window ended before now
+    public int purgeExpired(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        int removed = 0;
+        for (Long key : buckets.keySet()) {
+            if (key < current) {
+                Bucket bucket = buckets.remove(key);
+                if (bucket != null) {
+                    removed += bucket.exact.size();
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : buckets.values()) {
+            size += bucket.exact.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    // 64-bit FNV-1a, finalised with the murmur3 mixer; the two halves drive double hashing
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Bucket {
+        private final AtomicLongArray bits;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        Bucket(int size) {
+            this.bits = new AtomicLongArray(size >>> 6 == 0 ? 1 : size >>> 6);
+        }
+
+        void setBit(int bit) {
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long prev;
+            do {
+                prev = bits.get(word);
+                if ((prev & mask) != 0) {
+                    return;
+                }
+            } while (!bits.compareAndSet(word, prev, prev | mask));
+        }
+
+        boolean hasBit(int bit) {
+            return (bits.get(bit >>> 6) & (1L << bit)) != 0;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.Ask.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Sequential reads and writes of snapshot files through memory-mapped windows, so COPY data
+// moves between the driver and the page cache without an extra buffer copy per read/write
+// call. Files are mapped a window at a time to keep the address space use bounded.
+final class SnapshotFiles {
+
+    static final long DEFAULT_WINDOW = 64L << 20;
+
+    private SnapshotFiles() {
+    }
+
+    static String crc32c(Path file, long window) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += window) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position)));
+            }
+        }
+        return hex(crc.getValue());
+    }
+
+    static String hex(long crc) {
+        return String.format("%08x", crc);
+    }
+
+    // Grows the file one window at a time and truncates it to the bytes written on close.
+    // Keeps a running CRC32C of everything written.
+    static final class MappedOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final long window;
+        private final CRC32C crc = new CRC32C();
+        private MappedByteBuffer buffer;
+        private long mappedAt;
+        private long written;
+
+        MappedOutputStream(Path file, long window) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.window = window;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            crc.update(bytes, offset, length);
+            while (length > 0) {
+                if (buffer == null || !buffer.hasRemaining()) {
+                    mappedAt = written;
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, mappedAt, window);
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                written += chunk;
+            }
+        }
+
+        long bytes() {
+            return written;
+        }
+
+        String crc32c() {
+            return hex(crc.getValue());
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (buffer != null) {
+                    buffer.force();
+                    buffer = null;
+                }
+                channel.truncate(written);
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    static final class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private final long window;
+        private MappedByteBuffer buffer;
+        private long position;
+
+        MappedInputStream(Path file, long window) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.window = window;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (buffer == null || !buffer.hasRemaining()) {
+                if (position >= size) {
+                    return -1;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+            }
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, chunk);
+            position += chunk;
+            return chunk;
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
+    }
+}
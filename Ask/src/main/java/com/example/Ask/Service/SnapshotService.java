@@ -0,0 +1,404 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Binary snapshots of the pet data, replacing restores from the alldump.sql text dump.
+// Every table is written with COPY (FORMAT binary) to its own file, through memory-mapped
+// windows, and described in manifest.json with its row count, size and CRC32C. Tables are
+// streamed in parallel on separate connections that share one exported snapshot, so the
+// files are consistent with each other.
+//
+// A restore replays the whole chain in one transaction on one connection: the truncate keeps
+// its ACCESS EXCLUSIVE locks until the commit, so readers wait instead of seeing half-loaded
+// tables, and a failure at any table leaves the database as it was.
+//
+// Incremental snapshots hold the rows whose xmin (the id of the transaction that last wrote
+// them) is at or after the change sequence of the previous snapshot, plus the primary keys
+// of every row so deletions can be replayed. The base must be less than 2^31 transactions
+// old, as for any xid comparison in Postgres.
+@Service
+public class SnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    static final int FORMAT_VERSION = 1;
+    static final String MANIFEST = "manifest.json";
+
+    public enum Kind { FULL, INCREMENTAL }
+
+    record Table(String name, List<String> columns, List<String> keys) {
+    }
+
+    // Parents before children: tables in one level have no foreign keys between them and are
+    // backed up in parallel. stats_counters is left out: it is a read model, rebuilt from these
+    // tables after every restore.
+    static final List<List<Table>> LEVELS = List.of(
+            List.of(new Table("roles", List.of("id", "name"), List.of("id")),
+                    new Table("users", List.of("id", "username", "email", "password", "email_verified",
+                            "verification_token", "verification_token_expiry", "created_at", "last_login"), List.of("id"))),
+            List.of(new Table("user_roles", List.of("user_id", "role_id"), List.of("user_id", "role_id")),
+                    new Table("animal", List.of("id", "name", "type", "age", "gender", "req", "user_id"), List.of("id")),
+                    new Table("request", List.of("id", "name", "type", "age", "gender", "admin_approved", "doc_approved"), List.of("id"))),
+            List.of(new Table("adoption_request", List.of("id", "user_id", "animal_id", "status", "priority",
+                            "requested_at"), List.of("id")),
+                    new Table("adoption_history", List.of("id", "archived_at", "animal_id", "animal_name", "animal_type",
+                            "animal_age", "animal_gender", "adopter_id", "adopter_username", "adoption_request_id",
+                            "adoption_request_user_id", "adoption_request_status"), List.of("id", "archived_at"))));
+
+    // Ids that live on in adoption_history after their rows are archived away. The identities
+    // are reset past these too, so that a new animal never takes over an archived animal's history.
+    private static final Map<String, List<String>> ARCHIVED_IDS = Map.of(
+            "animal", List.of("animal_id"),
+            "adoption_request", List.of("adoption_request_id"),
+            "users", List.of("adopter_id", "adoption_request_user_id"));
+
+    public record TableFile(String file, long bytes, String crc32c) {
+    }
+
+    public record TableEntry(String name, List<String> columns, List<String> keys, long rows,
+                             TableFile data, TableFile keyFile) {
+    }
+
+    public record Manifest(int version, Kind kind, Instant createdAt, Long baseChangeSeq, long changeSeq,
+                           List<TableEntry> tables) {
+
+        TableEntry table(String name) {
+            return tables.stream().filter(t -> t.name().equals(name)).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("snapshot has no table " + name));
+        }
+    }
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final StatsService statsService;
+    private final int parallelism;
+    private final long window;
+
+    public SnapshotService(DataSource dataSource, ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory,
+                           CacheInvalidationService cacheInvalidationService, StatsService statsService,
+                           @Value("${app.snapshot.parallelism:3}") int parallelism,
+                           @Value("${app.snapshot.window-bytes:67108864}") long window) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.statsService = statsService;
+        this.parallelism = parallelism;
+        this.window = window;
+    }
+
+    // Writes a full snapshot to dir, or an incremental one on top of the snapshot in base
+    public Manifest backup(Path dir, Path base) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Manifest baseManifest = base == null ? null : readManifest(base);
+        Files.createDirectories(dir);
+        if (Files.exists(dir.resolve(MANIFEST))) {
+            throw new IllegalStateException(dir + " already holds a snapshot");
+        }
+
+        List<TableEntry> entries = new ArrayList<>();
+        long changeSeq;
+        // The coordinator's transaction keeps the exported snapshot alive until every table is written
+        try (Connection coordinator = dataSource.getConnection()) {
+            coordinator.setAutoCommit(false);
+            coordinator.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            String snapshot;
+            try (Statement statement = coordinator.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "select pg_export_snapshot(), pg_snapshot_xmin(pg_current_snapshot())::text::bigint")) {
+                rs.next();
+                snapshot = rs.getString(1);
+                changeSeq = rs.getLong(2);
+            }
+
+            List<Callable<TableEntry>> tasks = new ArrayList<>();
+            for (Table table : tables()) {
+                tasks.add(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.setAutoCommit(false);
+                        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("set transaction snapshot '" + snapshot + "'");
+                        }
+                        TableEntry entry = backupTable(connection, table, dir, baseManifest);
+                        connection.commit();
+                        return entry;
+                    }
+                });
+            }
+            entries.addAll(runAll(tasks));
+            coordinator.commit();
+        }
+
+        Manifest manifest = new Manifest(FORMAT_VERSION, baseManifest == null ? Kind.FULL : Kind.INCREMENTAL,
+                Instant.now(), baseManifest == null ? null : baseManifest.changeSeq(), changeSeq, entries);
+        // Written last and moved into place, so a directory with a manifest holds a complete snapshot
+        Path temp = dir.resolve(MANIFEST + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), manifest);
+        Files.move(temp, dir.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+        logger.info("event=snapshot.backup.done dir={} kind={} changeSeq={} rows={} bytes={} tookMs={}",
+                dir, manifest.kind(), changeSeq, entries.stream().mapToLong(TableEntry::rows).sum(),
+                entries.stream().mapToLong(e -> e.data().bytes()).sum(), (System.nanoTime() - start) / 1_000_000);
+        return manifest;
+    }
+
+    private TableEntry backupTable(Connection connection, Table table, Path dir, Manifest base)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        String columns = String.join(", ", table.columns());
+        String sql;
+        TableFile keyFile = null;
+        if (base == null) {
+            // A query rather than the table name: COPY TO refuses partitioned tables (adoption_history)
+            sql = "COPY (select " + columns + " from " + table.name() + ") TO STDOUT (FORMAT binary)";
+        } else {
+            // Modular comparison of the row's 32-bit xmin with the base, like TransactionIdFollowsOrEquals
+            long base32 = base.changeSeq() & 0xffffffffL;
+            sql = "COPY (select " + columns + " from " + table.name()
+                    + " where ((xmin::text::bigint - " + base32 + " + 4294967296) % 4294967296) < 2147483648"
+                    + ") TO STDOUT (FORMAT binary)";
+            keyFile = copyOut(copy, "COPY (select " + String.join(", ", table.keys()) + " from " + table.name()
+                    + ") TO STDOUT (FORMAT binary)", dir.resolve(table.name() + ".keys")).file();
+        }
+        CopyResult data = copyOut(copy, sql, dir.resolve(table.name() + ".copy"));
+        logger.info("event=snapshot.backup.table table={} rows={} bytes={} tookMs={}",
+                table.name(), data.rows(), data.file().bytes(), (System.nanoTime() - start) / 1_000_000);
+        return new TableEntry(table.name(), table.columns(), table.keys(), data.rows(), data.file(), keyFile);
+    }
+
+    private record CopyResult(long rows, TableFile file) {
+    }
+
+    private CopyResult copyOut(CopyManager copy, String sql, Path file) throws SQLException, IOException {
+        try (SnapshotFiles.MappedOutputStream out = new SnapshotFiles.MappedOutputStream(file, window)) {
+            long rows = copy.copyOut(sql, out);
+            out.flush();
+            return new CopyResult(rows, new TableFile(file.getFileName().toString(), out.bytes(), out.crc32c()));
+        }
+    }
+
+    // Restores a full snapshot followed by any incremental snapshots taken on top of it, in order.
+    // Every file is checked against the manifest before anything is written.
+    public void restore(List<Path> chain) throws IOException, SQLException {
+        long start = System.nanoTime();
+        List<Manifest> manifests = new ArrayList<>();
+        for (Path dir : chain) {
+            Manifest manifest = readManifest(dir);
+            verify(dir, manifest);
+            if (manifests.isEmpty() ? manifest.kind() != Kind.FULL
+                    : !Long.valueOf(manifests.get(manifests.size() - 1).changeSeq()).equals(manifest.baseChangeSeq())) {
+                throw new IllegalStateException(dir + " does not follow the previous snapshot in the chain");
+            }
+            manifests.add(manifest);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long waitlistVersions = maxWaitlistVersion(connection);
+                restoreFull(connection, chain.get(0), manifests.get(0));
+                for (int i = 1; i < chain.size(); i++) {
+                    restoreIncremental(connection, chain.get(i), manifests.get(i));
+                }
+                resetIdentities(connection);
+                bumpWaitlistVersions(connection, waitlistVersions);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        // The rows were written behind Hibernate's back: drop the caches here and on the other replicas
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        for (Class<?> type : List.of(Role.class, User.class, Animal.class, Request.class, AdoptionRequest.class)) {
+            cacheInvalidationService.changedAll(type);
+        }
+        cacheInvalidationService.flush();
+        statsService.rebuild();
+        logger.info("event=snapshot.restore.done snapshots={} changeSeq={} tookMs={}", chain.size(),
+                manifests.get(manifests.size() - 1).changeSeq(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Sequential, since the tables share the restore's transaction
+    private void restoreFull(Connection connection, Path dir, Manifest manifest) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table " + tables().stream().map(Table::name).collect(Collectors.joining(", "))
+                    + " restart identity");
+        }
+        for (Table table : tables()) {
+            TableEntry entry = manifest.table(table.name());
+            long rows = copyIn(connection, table.name(), entry.columns(), dir.resolve(entry.data().file()));
+            logger.info("event=snapshot.restore.table table={} rows={}", table.name(), rows);
+        }
+    }
+
+    // Changed rows are upserted parents first, then rows that no longer exist are deleted
+    // children first. If a unique constraint clashes on the way (a row deleted and another
+    // created with the same username, say) the whole restore is rolled back; restore a newer
+    // full snapshot instead.
+    private void restoreIncremental(Connection connection, Path dir, Manifest manifest) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Table table : tables()) {
+                TableEntry entry = manifest.table(table.name());
+                String stage = "snapshot_rows_" + table.name();
+                statement.execute("create temporary table " + stage + " as select "
+                        + String.join(", ", entry.columns()) + " from " + table.name() + " with no data");
+                long rows = copyIn(connection, stage, entry.columns(), dir.resolve(entry.data().file()));
+                List<String> updates = entry.columns().stream()
+                        .filter(column -> !entry.keys().contains(column))
+                        .map(column -> column + " = excluded." + column)
+                        .toList();
+                statement.execute("insert into " + table.name() + " (" + String.join(", ", entry.columns()) + ") "
+                        + "select " + String.join(", ", entry.columns()) + " from " + stage
+                        + " on conflict (" + String.join(", ", entry.keys()) + ") "
+                        + (updates.isEmpty() ? "do nothing" : "do update set " + String.join(", ", updates)));
+                logger.info("event=snapshot.restore.table table={} changedRows={}", table.name(), rows);
+            }
+            for (Table table : tables().reversed()) {
+                TableEntry entry = manifest.table(table.name());
+                String keys = "snapshot_keys_" + table.name();
+                statement.execute("create temporary table " + keys + " as select "
+                        + String.join(", ", entry.keys()) + " from " + table.name() + " with no data");
+                copyIn(connection, keys, entry.keys(), dir.resolve(entry.keyFile().file()));
+                int deleted = statement.executeUpdate("delete from " + table.name() + " t where not exists "
+                        + "(select 1 from " + keys + " k where "
+                        + entry.keys().stream().map(key -> "k." + key + " = t." + key).collect(Collectors.joining(" and "))
+                        + ")");
+                logger.info("event=snapshot.restore.table table={} deletedRows={}", table.name(), deleted);
+            }
+            for (Table table : tables()) {
+                statement.execute("drop table snapshot_rows_" + table.name() + ", snapshot_keys_" + table.name());
+            }
+        }
+    }
+
+    // waitlist_version is not in the snapshot and restarts at 0 with the truncate. Moving every
+    // animal past the highest version from before the restore makes WaitlistService on every
+    // replica reload its in-memory waitlists instead of trusting a copy whose version happens to match.
+    private long maxWaitlistVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select coalesce(max(waitlist_version), 0) from animal")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void bumpWaitlistVersions(Connection connection, long previousMax) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update animal set waitlist_version = waitlist_version + " + (previousMax + 1));
+        }
+    }
+
+    private long copyIn(Connection connection, String table, List<String> columns, Path file)
+            throws SQLException, IOException {
+        CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        try (InputStream in = new SnapshotFiles.MappedInputStream(file, window)) {
+            return copy.copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT binary)", in);
+        }
+    }
+
+    // Identity columns keep counting from where the restored rows (and their archived ids) end
+    private void resetIdentities(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Table table : tables()) {
+                if (table.keys().contains("id")) {
+                    String max = "(select max(id) from " + table.name() + ")";
+                    for (String column : ARCHIVED_IDS.getOrDefault(table.name(), List.of())) {
+                        max += ", (select max(" + column + ") from adoption_history)";
+                    }
+                    statement.execute("select setval(pg_get_serial_sequence('" + table.name() + "', 'id'), "
+                            + "coalesce(greatest(" + max + "), 0) + 1, false)");
+                }
+            }
+        }
+    }
+
+    public Manifest readManifest(Path dir) throws IOException {
+        Path file = dir.resolve(MANIFEST);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException(dir + " holds no complete snapshot");
+        }
+        Manifest manifest = objectMapper.readValue(file.toFile(), Manifest.class);
+        if (manifest.version() != FORMAT_VERSION) {
+            throw new IllegalStateException(dir + " has snapshot format " + manifest.version());
+        }
+        return manifest;
+    }
+
+    private void verify(Path dir, Manifest manifest) throws IOException {
+        for (TableEntry entry : manifest.tables()) {
+            for (TableFile file : entry.keyFile() == null ? List.of(entry.data()) : List.of(entry.data(), entry.keyFile())) {
+                Path path = dir.resolve(file.file());
+                if (Files.size(path) != file.bytes() || !SnapshotFiles.crc32c(path, window).equals(file.crc32c())) {
+                    throw new IllegalStateException(path + " does not match its checksum");
+                }
+            }
+        }
+    }
+
+    private static List<Table> tables() {
+        return LEVELS.stream().flatMap(List::stream).toList();
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws IOException, SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks.size())));
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("snapshot interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.StatsDto;
+import com.example.Ask.config.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Read model behind /api/stats. The services report every change to the counted tables and,
+// once the transaction commits, the change lands in a LongAdder per counter. Every flush
+// interval the accumulated deltas are added to stats_counters and the totals of all replicas
+// are read back. A read is the last totals plus what this replica has not flushed yet, so
+// it costs the same whatever the size of the tables.
+//
+// Writes that go around the services (seeding, snapshot restores) call rebuild(), which
+// recounts everything from the source tables. So does the first start on a database whose
+// stats_counters table is still empty.
+@Service
+public class StatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsService.class);
+    private static final RateLimitedLogger flushFailures = new RateLimitedLogger(logger, 5, 60_000, 1);
+
+    static final String PENDING_REQUESTS = "requests.pending";
+    static final String REQUESTS_AWAITING_DOCTOR = "requests.awaiting_doctor";
+    static final String REQUESTS_AWAITING_ADMIN = "requests.awaiting_admin";
+    static final String ANIMALS_AVAILABLE = "animals.available";
+    static final String ANIMALS_REQUESTED = "animals.requested";
+    static final String PENDING_ADOPTIONS = "adoptions.pending";
+    // adopted.<yyyy-MM>.<animal type>
+    static final String ADOPTED = "adopted.";
+
+    private static final String PENDING = "pending";
+
+    // Totals read from stats_counters, plus deltas already written there but not yet read back
+    private record View(Map<String, Long> persisted, Map<String, Long> inFlight) {
+        long get(String name) {
+            return persisted.getOrDefault(name, 0L) + inFlight.getOrDefault(name, 0L);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<String, LongAdder> deltas = new ConcurrentHashMap<>();
+    private volatile View view = new View(Map.of(), Map.of());
+
+    public StatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void animalAdded(int req) {
+        add(req == 0 ? ANIMALS_AVAILABLE : ANIMALS_REQUESTED, 1);
+    }
+
+    public void animalRemoved(int req) {
+        add(req == 0 ? ANIMALS_AVAILABLE : ANIMALS_REQUESTED, -1);
+    }
+
+    public void requestAdded(int adminApproved, int docApproved) {
+        request(adminApproved, docApproved, 1);
+    }
+
+    public void requestRemoved(int adminApproved, int docApproved) {
+        request(adminApproved, docApproved, -1);
+    }
+
+    private void request(int adminApproved, int docApproved, long sign) {
+        add(PENDING_REQUESTS, sign);
+        if (docApproved == 0) {
+            add(REQUESTS_AWAITING_DOCTOR, sign);
+        }
+        if (adminApproved == 0) {
+            add(REQUESTS_AWAITING_ADMIN, sign);
+        }
+    }
+
+    public void adoptionRequestAdded(String status) {
+        if (PENDING.equals(status)) {
+            add(PENDING_ADOPTIONS, 1);
+        }
+    }
+
+    public void adoptionRequestRemoved(String status) {
+        if (PENDING.equals(status)) {
+            add(PENDING_ADOPTIONS, -1);
+        }
+    }
+
+    public void animalAdopted(String type, YearMonth month) {
+        add(adopted(month.toString(), type), 1);
+    }
+
+    private static String adopted(String month, String type) {
+        return ADOPTED + month + "." + (type == null ? "Unknown" : type);
+    }
+
+    // Counted once the surrounding transaction has committed, so rolled back writes never show
+    private void add(String name, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+                }
+            });
+        } else {
+            deltas.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public StatsDto current() {
+        View current = view;
+        Map<String, Map<String, Long>> adoptions = new TreeMap<>();
+        List<String> names = new ArrayList<>(current.persisted().keySet());
+        names.addAll(current.inFlight().keySet());
+        names.addAll(deltas.keySet());
+        for (String name : names) {
+            if (name.startsWith(ADOPTED)) {
+                String month = name.substring(ADOPTED.length(), ADOPTED.length() + 7);
+                String type = name.substring(ADOPTED.length() + 8);
+                adoptions.computeIfAbsent(month, k -> new TreeMap<>()).computeIfAbsent(type, k -> value(current, name));
+            }
+        }
+        return new StatsDto(value(current, PENDING_REQUESTS), value(current, REQUESTS_AWAITING_DOCTOR),
+                value(current, REQUESTS_AWAITING_ADMIN), value(current, ANIMALS_AVAILABLE),
+                value(current, ANIMALS_REQUESTED), value(current, PENDING_ADOPTIONS), adoptions);
+    }
+
+    private long value(View current, String name) {
+        LongAdder delta = deltas.get(name);
+        return current.get(name) + (delta == null ? 0 : delta.sum());
+    }
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        try {
+            Integer counters = jdbcTemplate.queryForObject("select count(*) from stats_counters", Integer.class);
+            if (counters == null || counters == 0) {
+                rebuild();
+            } else {
+                view = new View(load(), Map.of());
+            }
+        } catch (DataAccessException e) {
+            // Another replica rebuilt at the same time; its totals are read on the next flush
+            flushFailures.warn("event=stats.start_failed message={}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<String, Long> drained = new HashMap<>();
+        deltas.forEach((name, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(name, delta);
+            }
+        });
+        if (!drained.isEmpty()) {
+            View before = view;
+            Map<String, Long> inFlight = new HashMap<>(before.inFlight());
+            drained.forEach((name, delta) -> inFlight.merge(name, delta, Long::sum));
+            view = new View(before.persisted(), inFlight);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(drained));
+            } catch (DataAccessException e) {
+                // Rolled back: keep the deltas for the next flush
+                view = before;
+                drained.forEach((name, delta) -> deltas.computeIfAbsent(name, k -> new LongAdder()).add(delta));
+                flushFailures.warn("event=stats.flush_failed counters={} message={}", drained.size(), e.getMessage());
+                return;
+            }
+        }
+        try {
+            view = new View(load(), Map.of());
+        } catch (DataAccessException e) {
+            // What was written stays in inFlight until the totals can be read again
+            flushFailures.warn("event=stats.reload_failed message={}", e.getMessage());
+        }
+    }
+
+    private void write(Map<String, Long> drained) {
+        List<String> names = new ArrayList<>(drained.keySet());
+        int[] updated = jdbcTemplate.batchUpdate("update stats_counters set total = total + ? where name = ?",
+                names.stream().map(name -> new Object[]{drained.get(name), name}).toList());
+        for (int i = 0; i < names.size(); i++) {
+            if (updated[i] == 0) {
+                // First delta for this counter; another replica may be creating it at the same time
+                String name = names.get(i);
+                jdbcTemplate.update("insert into stats_counters (name, total) values (?, 0) on conflict do nothing", name);
+                jdbcTemplate.update("update stats_counters set total = total + ? where name = ?", drained.get(name), name);
+            }
+        }
+    }
+
+    private Map<String, Long> load() {
+        Map<String, Long> totals = new HashMap<>();
+        jdbcTemplate.query("select name, total from stats_counters", rs -> {
+            totals.put(rs.getString(1), rs.getLong(2));
+        });
+        return totals;
+    }
+
+    // Recounts every counter from the source tables and replaces stats_counters. Deltas of
+    // transactions that commit while it runs may be counted twice or not at all; the next
+    // rebuild corrects them.
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        deltas.values().forEach(LongAdder::reset);
+        Map<String, Long> totals = transactionTemplate.execute(status -> {
+            Map<String, Long> counted = new HashMap<>();
+            jdbcTemplate.query("select count(*), " +
+                    "coalesce(sum(case when doc_approved = 0 then 1 else 0 end), 0), " +
+                    "coalesce(sum(case when admin_approved = 0 then 1 else 0 end), 0) from request", rs -> {
+                counted.put(PENDING_REQUESTS, rs.getLong(1));
+                counted.put(REQUESTS_AWAITING_DOCTOR, rs.getLong(2));
+                counted.put(REQUESTS_AWAITING_ADMIN, rs.getLong(3));
+            });
+            jdbcTemplate.query("select coalesce(sum(case when req = 0 then 1 else 0 end), 0), " +
+                    "coalesce(sum(case when req <> 0 then 1 else 0 end), 0) from animal", rs -> {
+                counted.put(ANIMALS_AVAILABLE, rs.getLong(1));
+                counted.put(ANIMALS_REQUESTED, rs.getLong(2));
+            });
+            counted.put(PENDING_ADOPTIONS, jdbcTemplate.queryForObject(
+                    "select count(*) from adoption_request where status = ?", Long.class, PENDING));
+            jdbcTemplate.query("select extract(year from archived_at), extract(month from archived_at), animal_type, " +
+                    "count(distinct animal_id) from adoption_history " +
+                    "group by extract(year from archived_at), extract(month from archived_at), animal_type", rs -> {
+                YearMonth month = YearMonth.of(rs.getInt(1), rs.getInt(2));
+                counted.merge(adopted(month.toString(), rs.getString(3)), rs.getLong(4), Long::sum);
+            });
+
+            jdbcTemplate.update("delete from stats_counters");
+            jdbcTemplate.batchUpdate("insert into stats_counters (name, total) values (?, ?)",
+                    counted.entrySet().stream().map(e -> new Object[]{e.getKey(), e.getValue()}).toList());
+            return counted;
+        });
+        view = new View(totals, Map.of());
+        logger.info("event=stats.rebuilt counters={} tookMs={}", totals.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.RevokedToken;
+import com.example.Ask.Repositories.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationIndex index;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.revocation.bucketMs:3600000}") long bucketMs,
+                                  @Value("${app.revocation.bitsPerBucket:65536}") int bitsPerBucket,
+                                  @Value("${app.revocation.hashes:4}") int hashes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.index = new RevocationIndex(bucketMs, bitsPerBucket, hashes);
+        Gauge.builder("jwt.revocations.active", index, RevocationIndex::size).register(meterRegistry);
+    }
+
+    // Rebuild the in-memory index from the persisted revocations that have not expired yet.
+    // Runs after the context refresh rather than in it, so the refresh itself needs no
+    // database (the CDS training run in the Dockerfile stops right after it).
+    @EventListener(ApplicationStartedEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        index.clear();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            index.add(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        lastSync = now;
+        logger.info("Loaded {} active token revocations", index.size());
+    }
+
+    // Checked on every authenticated request: no database access
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null) {
+            return false;
+        }
+        return index.isRevoked(jti, expiration.getTime());
+    }
+
+    @Transactional
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null || index.isRevoked(jti, expiration.getTime())) {
+            return;
+        }
+        // Two concurrent logouts with the same token both get past the check above
+        revokedTokenRepository.insertIfAbsent(jti, claims.getSubject(), toLocal(expiration.getTime()), LocalDateTime.now());
+        index.add(jti, expiration.getTime());
+    }
+
+    // Picks up revocations made by other backend replicas
+    @Scheduled(fixedDelayString = "${app.revocation.syncIntervalMs:10000}")
+    public void sync() {
+        if (lastSync == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minusSeconds(1), now)) {
+            index.add(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.purgeIntervalMs:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        index.purgeExpired(System.currentTimeMillis());
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Removes abandoned registrations. An account whose verification link expired more than
+// retention-hours ago can neither verify nor log in, yet it keeps its username and email taken.
+// Such accounts are deleted with their role rows; the few that adoption requests or animals
+// still point at only lose the dead token, which also takes them out of the sweep.
+//
+// Work is done batch-size accounts per transaction, oldest expiry first, with a pause between
+// batches and at most max-batches per run, so row locks stay short and a large backlog is
+// worked off over several runs. Rows locked by a concurrent writer are skipped, not waited on.
+@Service
+public class UserCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCleanupService.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationService cacheInvalidation;
+    private final long retentionHours;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMs;
+    private final Counter deleted;
+    private final Counter compacted;
+    private final DistributionSummary reclaimedPerRun;
+
+    private record Batch(int deleted, int compacted, int selected) {
+    }
+
+    public UserCleanupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              CacheInvalidationService cacheInvalidation, MeterRegistry meterRegistry,
+                              @Value("${app.cleanup.unverified-retention-hours:24}") long retentionHours,
+                              @Value("${app.cleanup.batch-size:500}") int batchSize,
+                              @Value("${app.cleanup.max-batches:20}") int maxBatches,
+                              @Value("${app.cleanup.pause-ms:200}") long pauseMs) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidation = cacheInvalidation;
+        this.retentionHours = retentionHours;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMs = pauseMs;
+        this.deleted = Counter.builder("users.cleanup.rows").tag("outcome", "deleted").register(meterRegistry);
+        this.compacted = Counter.builder("users.cleanup.rows").tag("outcome", "compacted").register(meterRegistry);
+        this.reclaimedPerRun = DistributionSummary.builder("users.cleanup.reclaimed_per_run").register(meterRegistry);
+    }
+
+    // Returns the number of accounts deleted or compacted
+    @Scheduled(initialDelayString = "${app.cleanup.interval-ms:3600000}", fixedDelayString = "${app.cleanup.interval-ms:3600000}")
+    public int sweep() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int removed = 0;
+        int cleared = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            Batch batch = transactionTemplate.execute(status -> batch(cutoff));
+            batches++;
+            removed += batch.deleted();
+            cleared += batch.compacted();
+            if (batch.selected() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        reclaimedPerRun.record(removed + cleared);
+        if (removed + cleared > 0) {
+            logger.info("event=users.cleanup deleted={} compacted={} batches={} tookMs={}",
+                    removed, cleared, batches, (System.nanoTime() - start) / 1_000_000);
+        }
+        return removed + cleared;
+    }
+
+    private Batch batch(LocalDateTime cutoff) {
+        List<Integer> ids = jdbc.queryForList("select id from users where email_verified = false " +
+                        "and verification_token_expiry < :cutoff order by verification_token_expiry " +
+                        "limit :limit for update skip locked",
+                new MapSqlParameterSource().addValue("cutoff", cutoff).addValue("limit", batchSize), Integer.class);
+        if (ids.isEmpty()) {
+            return new Batch(0, 0, 0);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        Set<Integer> referenced = new HashSet<>(jdbc.queryForList(
+                "select user_id from adoption_request where user_id in (:ids) " +
+                        "union select user_id from animal where user_id in (:ids)", params, Integer.class));
+        List<Integer> unreferenced = ids.stream().filter(id -> !referenced.contains(id)).toList();
+
+        int removed = 0;
+        if (!unreferenced.isEmpty()) {
+            MapSqlParameterSource doomed = new MapSqlParameterSource("ids", unreferenced);
+            jdbc.update("delete from user_roles where user_id in (:ids)", doomed);
+            removed = jdbc.update("delete from users where id in (:ids)", doomed);
+        }
+        int cleared = 0;
+        if (!referenced.isEmpty()) {
+            cleared = jdbc.update("update users set verification_token = null, verification_token_expiry = null " +
+                    "where id in (:ids)", new MapSqlParameterSource("ids", referenced));
+        }
+
+        // Written behind Hibernate's back: evict the users here and on the other replicas
+        cacheInvalidation.evictLocallyAndNotify(User.class, ids);
+        deleted.increment(removed);
+        compacted.increment(cleared);
+        return new Batch(removed, cleared, ids.size());
+    }
+}
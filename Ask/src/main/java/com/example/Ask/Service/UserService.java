@@ -5,7 +5,7 @@ import com.example.Ask.Entities.Role;
 import com.example.Ask.Repositories.RoleRepository;
 import com.example.Ask.Repositories.UserRepository;
 import jakarta.annotation.PostConstruct;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -32,8 +32,12 @@ public class UserService implements UserDetailsService {
 
     private BCryptPasswordEncoder passwordEncoder;
 
+    private final CacheInvalidationService cacheInvalidation;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, BCryptPasswordEncoder passwordEncoder) {
+
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, BCryptPasswordEncoder passwordEncoder,
+                       CacheInvalidationService cacheInvalidation) {
+        this.cacheInvalidation = cacheInvalidation;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
@@ -57,12 +61,14 @@ public class UserService implements UserDetailsService {
             user.setRoles(roles);
         }
         user = userRepository.save(user);
+        cacheInvalidation.changed(User.class, user.getId());
         return user.getId();
     }
 
     @Transactional
     public Integer updateUser(User user) {
         user = userRepository.save(user);
+        cacheInvalidation.changed(User.class, user.getId());
         return user.getId();
     }
     @Override
@@ -85,11 +91,14 @@ public class UserService implements UserDetailsService {
         }
     }
 
-    @Transactional
+    // Read-only: served by the replica pool when one is configured
+    @Transactional(readOnly = true)
     public List<User> getUsers() {
         return userRepository.findAll();
     }
 
+    // Edited and saved back by the user and role endpoints: read it from the primary, not a lagging replica
+    @Transactional
     public User getUser(Integer userId) {
         return userRepository.findById(userId).get();
     }
@@ -104,23 +113,30 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User with username: " + username + " not found!"));
     }
 
+    // Login, registration and verification must see their own writes: keep them on the primary
+    @Transactional
     public boolean existsByUsername(String username) {
         return userRepository.findByUsername(username).isPresent();
     }
 
+    @Transactional
     public boolean existsByEmail(String email) {
         return userRepository.findByEmail(email).isPresent();
     }
 
+    @Transactional
     public User findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
 
+    @Transactional
     public User findByVerificationToken(String token) {
         return userRepository.findByVerificationToken(token).orElse(null);
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidation.changed(User.class, saved.getId());
+        return saved;
     }
 }
\ No newline at end of file
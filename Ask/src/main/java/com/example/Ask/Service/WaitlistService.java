@@ -0,0 +1,377 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.WaitlistEntryDto;
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Per-animal adoption waitlists. The animal is reserved (req = 1, userId) for the applicant
+// whose adoption request is 'pending'; later applicants queue behind them as 'waiting',
+// ordered by priority and then by arrival. Denying or withdrawing the current applicant
+// promotes the next one in the same transaction.
+//
+// Every change to an animal's waitlist first locks its animal row, so changes to one animal
+// are serialized across threads and replicas, and bumps animal.waitlist_version. Each replica
+// keeps the waiting entries in a sorted set per animal (O(log n) to add, remove or take the
+// next one) tagged with the version it reflects; a copy whose version no longer matches the
+// row is reloaded from adoption_request. Changes reach the in-memory copy only once the
+// transaction has committed.
+@Service
+public class WaitlistService {
+
+    static final String PENDING = "pending";
+    static final String WAITING = "waiting";
+    static final String DENIED = "denied";
+    static final String WITHDRAWN = "withdrawn";
+
+    private record Entry(long requestId, int priority, int userId) {
+    }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingInt(Entry::priority).reversed().thenComparingLong(Entry::requestId);
+
+    // Guarded by its own monitor; only the transaction holding the animal's row lock changes it
+    private static final class Queue {
+        long version;
+        Entry current;
+        final TreeSet<Entry> waiting = new TreeSet<>(ORDER);
+        final Map<Integer, Entry> byUser = new HashMap<>();
+        final Map<Long, Entry> byRequest = new HashMap<>();
+
+        Queue(long version) {
+            this.version = version;
+        }
+
+        void add(Entry entry) {
+            waiting.add(entry);
+            byUser.put(entry.userId(), entry);
+            byRequest.put(entry.requestId(), entry);
+        }
+
+        void remove(Entry entry) {
+            waiting.remove(entry);
+            byUser.remove(entry.userId());
+            byRequest.remove(entry.requestId());
+        }
+
+        void promote(Entry next) {
+            if (current != null) {
+                byUser.remove(current.userId());
+                byRequest.remove(current.requestId());
+            }
+            current = next;
+            if (next != null) {
+                waiting.remove(next);
+                byUser.put(next.userId(), next);
+                byRequest.put(next.requestId(), next);
+            }
+        }
+    }
+
+    private record LockedAnimal(int req, Integer userId, String name, long version) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationService cacheInvalidation;
+    private final StatsService stats;
+    private final EmailService emailService;
+    private final ConcurrentHashMap<Integer, Queue> queues = new ConcurrentHashMap<>();
+
+    public WaitlistService(JdbcTemplate jdbcTemplate, CacheInvalidationService cacheInvalidation, StatsService stats,
+                           EmailService emailService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheInvalidation = cacheInvalidation;
+        this.stats = stats;
+        this.emailService = emailService;
+    }
+
+    // Reserves the animal for the user if nobody holds it or waits for it, else puts them at the
+    // back of the line. Joining again returns the user's place unchanged. Returns the request's status.
+    @Transactional
+    public String join(Integer animalId, int userId) {
+        LockedAnimal animal = lock(animalId);
+        Queue queue = queue(animalId, animal.version());
+        Entry current;
+        Entry next;
+        synchronized (queue) {
+            Entry existing = queue.byUser.get(userId);
+            if (existing != null) {
+                return existing == queue.current ? PENDING : WAITING;
+            }
+            current = queue.current;
+            next = queue.waiting.isEmpty() ? null : queue.waiting.first();
+        }
+        // Held without a request (reserved before waitlists existed): the holder keeps it
+        if (animal.req() != 0 && current == null && Integer.valueOf(userId).equals(animal.userId())) {
+            return PENDING;
+        }
+        boolean free = animal.req() == 0 && current == null && next == null;
+        String status = free ? PENDING : WAITING;
+        long requestId = insertRequest(animalId, userId, status);
+        Entry entry = new Entry(requestId, 0, userId);
+        if (free) {
+            updateAnimal(animalId, animal, 1, userId);
+            afterCommit(animalId, queue, animal.version(), q -> q.promote(entry));
+        } else if (animal.req() == 0) {
+            // Released while people were still in line: it goes to whoever is ahead, not the newcomer
+            Entry holder = current != null ? current : next;
+            if (current == null) {
+                setStatus(next.requestId(), WAITING, PENDING);
+                notifyPromoted(next.userId(), animal.name());
+            }
+            updateAnimal(animalId, animal, 1, holder.userId());
+            afterCommit(animalId, queue, animal.version(), q -> {
+                q.promote(holder);
+                q.add(entry);
+            });
+        } else {
+            bumpVersion(animalId);
+            afterCommit(animalId, queue, animal.version(), q -> q.add(entry));
+        }
+        return status;
+    }
+
+    // The current applicant is turned down and the next one in line, if any, gets the animal
+    @Transactional
+    public void deny(Integer animalId) {
+        LockedAnimal animal = lock(animalId);
+        advance(animalId, animal, queue(animalId, animal.version()), DENIED);
+    }
+
+    // Takes the user off the animal's waitlist; if the animal was reserved for them, the next in line gets it
+    @Transactional
+    public boolean withdraw(Integer animalId, int userId) {
+        LockedAnimal animal = lock(animalId);
+        Queue queue = queue(animalId, animal.version());
+        Entry entry;
+        boolean reserved;
+        synchronized (queue) {
+            entry = queue.byUser.get(userId);
+            reserved = entry != null && entry == queue.current;
+        }
+        if (entry == null) {
+            return false;
+        }
+        if (reserved) {
+            advance(animalId, animal, queue, WITHDRAWN);
+        } else {
+            setStatus(entry.requestId(), WAITING, WITHDRAWN);
+            bumpVersion(animalId);
+            afterCommit(animalId, queue, animal.version(), q -> q.remove(entry));
+        }
+        return true;
+    }
+
+    // Higher priorities are served first; equal priorities in arrival order
+    @Transactional
+    public boolean setPriority(Integer animalId, long requestId, int priority) {
+        LockedAnimal animal = lock(animalId);
+        Queue queue = queue(animalId, animal.version());
+        Entry entry;
+        boolean reserved;
+        synchronized (queue) {
+            entry = queue.byRequest.get(requestId);
+            reserved = entry != null && entry == queue.current;
+        }
+        if (entry == null || reserved) {
+            return false;
+        }
+        jdbcTemplate.update("update adoption_request set priority = ? where id = ?", priority, requestId);
+        cacheInvalidation.changed(AdoptionRequest.class, requestId);
+        bumpVersion(animalId);
+        Entry reordered = new Entry(requestId, priority, entry.userId());
+        afterCommit(animalId, queue, animal.version(), q -> {
+            q.remove(entry);
+            q.add(reordered);
+        });
+        return true;
+    }
+
+    // The current applicant first, then the line in the order it will be served
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> waitlist(Integer animalId) {
+        Long version = jdbcTemplate.queryForObject("select waitlist_version from animal where id = ?", Long.class, animalId);
+        Queue queue = queue(animalId, version);
+        List<WaitlistEntryDto> entries = new ArrayList<>();
+        synchronized (queue) {
+            if (queue.current != null) {
+                entries.add(new WaitlistEntryDto(queue.current.requestId(), queue.current.userId(), PENDING,
+                        queue.current.priority(), 0));
+            }
+            int position = 1;
+            for (Entry entry : queue.waiting) {
+                entries.add(new WaitlistEntryDto(entry.requestId(), entry.userId(), WAITING, entry.priority(), position++));
+            }
+        }
+        return entries;
+    }
+
+    // Archived animals take their adoption requests with them
+    public void forget(Collection<Integer> animalIds) {
+        animalIds.forEach(queues::remove);
+    }
+
+    // A deleted animal takes its adoption requests with it: they are removed first (they
+    // reference the animal) under its row lock, in the caller's transaction
+    @Transactional
+    public void discard(Integer animalId) {
+        lock(animalId);
+        List<Long> requestIds = new ArrayList<>();
+        jdbcTemplate.query("select id, status from adoption_request where animal_id = ?", rs -> {
+            requestIds.add(rs.getLong(1));
+            stats.adoptionRequestRemoved(rs.getString(2));
+        }, animalId);
+        jdbcTemplate.update("delete from adoption_request where animal_id = ?", animalId);
+        cacheInvalidation.evictLocallyAndNotify(AdoptionRequest.class, requestIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget(List.of(animalId));
+            }
+        });
+    }
+
+    private void advance(Integer animalId, LockedAnimal animal, Queue queue, String outcome) {
+        Entry current;
+        Entry next;
+        synchronized (queue) {
+            current = queue.current;
+            next = queue.waiting.isEmpty() ? null : queue.waiting.first();
+        }
+        if (current != null) {
+            setStatus(current.requestId(), PENDING, outcome);
+        }
+        if (next != null) {
+            setStatus(next.requestId(), WAITING, PENDING);
+            updateAnimal(animalId, animal, 1, next.userId());
+            notifyPromoted(next.userId(), animal.name());
+        } else {
+            updateAnimal(animalId, animal, 0, null);
+        }
+        afterCommit(animalId, queue, animal.version(), q -> q.promote(next));
+    }
+
+    private LockedAnimal lock(Integer animalId) {
+        try {
+            return jdbcTemplate.queryForObject(
+                    "select req, user_id, name, waitlist_version from animal where id = ? for update",
+                    (rs, rowNum) -> new LockedAnimal(rs.getInt(1), rs.getObject(2, Integer.class), rs.getString(3), rs.getLong(4)),
+                    animalId);
+        } catch (EmptyResultDataAccessException e) {
+            throw new NoSuchElementException("No animal " + animalId);
+        }
+    }
+
+    private Queue queue(Integer animalId, long version) {
+        Queue queue = queues.get(animalId);
+        if (queue != null) {
+            synchronized (queue) {
+                if (queue.version == version) {
+                    return queue;
+                }
+            }
+        }
+        Queue loaded = new Queue(version);
+        // Requests filed before waitlists existed may leave several pending: the oldest is the
+        // current applicant and the others line up behind it
+        jdbcTemplate.query("select id, priority, user_id, status from adoption_request " +
+                "where animal_id = ? and status in (?, ?) order by id", rs -> {
+            Entry entry = new Entry(rs.getLong(1), rs.getInt(2), rs.getInt(3));
+            if (PENDING.equals(rs.getString(4)) && loaded.current == null) {
+                loaded.promote(entry);
+            } else {
+                loaded.add(entry);
+            }
+        }, animalId, PENDING, WAITING);
+        queues.put(animalId, loaded);
+        return loaded;
+    }
+
+    // Applies the change to the in-memory copy once committed, unless that copy has been
+    // replaced or moved on in the meantime (the next reader then reloads it)
+    private void afterCommit(Integer animalId, Queue queue, long version, Consumer<Queue> change) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (queue) {
+                    if (queues.get(animalId) == queue && queue.version == version) {
+                        change.accept(queue);
+                        queue.version = version + 1;
+                    }
+                }
+            }
+        });
+    }
+
+    private long insertRequest(Integer animalId, int userId, String status) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("insert into adoption_request " +
+                    "(user_id, animal_id, status, priority, requested_at) values (?, ?, ?, 0, ?)", new String[]{"id"});
+            statement.setInt(1, userId);
+            statement.setInt(2, animalId);
+            statement.setString(3, status);
+            statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, keys);
+        long id = keys.getKey().longValue();
+        stats.adoptionRequestAdded(status);
+        cacheInvalidation.changed(AdoptionRequest.class, id);
+        return id;
+    }
+
+    private void setStatus(long requestId, String from, String to) {
+        jdbcTemplate.update("update adoption_request set status = ? where id = ?", to, requestId);
+        stats.adoptionRequestRemoved(from);
+        stats.adoptionRequestAdded(to);
+        cacheInvalidation.changed(AdoptionRequest.class, requestId);
+    }
+
+    private void updateAnimal(Integer animalId, LockedAnimal before, int req, Integer userId) {
+        jdbcTemplate.update("update animal set req = ?, user_id = ?, waitlist_version = waitlist_version + 1 where id = ?",
+                req, userId, animalId);
+        stats.animalRemoved(before.req());
+        stats.animalAdded(req);
+        // Written behind Hibernate's back: evict the cached animal here and on the other replicas
+        cacheInvalidation.evictLocallyAndNotify(Animal.class, List.of(animalId));
+    }
+
+    private void bumpVersion(Integer animalId) {
+        jdbcTemplate.update("update animal set waitlist_version = waitlist_version + 1 where id = ?", animalId);
+    }
+
+    // Sent after commit, so a slow mail server never holds the animal's row lock
+    private void notifyPromoted(int userId, String animalName) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                List<String> emails = jdbcTemplate.queryForList("select email from users where id = ?", String.class, userId);
+                if (!emails.isEmpty()) {
+                    emailService.send(emails.get(0), "Adoption Request Pending",
+                            "You are next in line for '" + animalName + "'. Your adoption request is now pending approval.");
+                }
+            }
+        });
+    }
+}
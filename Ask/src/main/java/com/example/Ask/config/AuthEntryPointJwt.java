@@ -8,7 +8,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
 
@@ -17,17 +16,14 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
+    // 401s are expected traffic (expired sessions, probes); log a sample, never one line per request
+    private static final RateLimitedLogger unauthorized = new RateLimitedLogger(logger, 20, 60_000, 100);
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        logger.error("Unauthorized error: {}", authException.getMessage());
-        logger.error("Request URI: {}", request.getRequestURI());
-        logger.error("Request Method: {}", request.getMethod());
-        logger.error("Authentication: {}", SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            logger.error("Current user authorities: {}", 
-                SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
+        unauthorized.debug("event=auth.unauthorized method={} uri={} reason={}",
+                request.getMethod(), request.getRequestURI(), authException.getMessage());
         response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Error: Unauthorized");
     }
-} 
\ No newline at end of file
+} 
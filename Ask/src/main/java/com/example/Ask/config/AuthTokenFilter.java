@@ -1,6 +1,7 @@
 package com.example.Ask.config;
 
-import com.example.Ask.Service.UserService;
+import com.example.Ask.Service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,25 +23,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserService userService;
+    private TokenRevocationService tokenRevocationService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    private static final RateLimitedLogger failures = new RateLimitedLogger(logger, 10, 60_000, 1);
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.getUsernameFromToken(jwt);
-                UserDetails userDetails = userService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtil.parseClaims(jwt) : null;
+            // Identity and roles come from the signed token; revoked tokens are rejected from memory
+            if (claims != null && !tokenRevocationService.isRevoked(claims)) {
+                UserDetails userDetails = User.withUsername(claims.getSubject())
+                        .password("")
+                        .authorities(jwtUtil.getAuthorities(claims))
+                        .build();
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e.getMessage());
+            failures.error("event=auth.filter.failed message={}", e.getMessage());
         }
         filterChain.doFilter(request, response);
     }
@@ -51,4 +59,4 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         }
         return null;
     }
-} 
\ No newline at end of file
+} 
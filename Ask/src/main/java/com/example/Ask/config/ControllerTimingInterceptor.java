@@ -0,0 +1,48 @@
+package com.example.Ask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latency per controller method as app.controller.latency{controller,method}.
+// Timers are resolved once per handler method, so the request path only does a map lookup.
+public class ControllerTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ControllerTimingInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public ControllerTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod handlerMethod
+                && request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            timers.computeIfAbsent(handlerMethod.getMethod(), method -> Timer.builder("app.controller.latency")
+                            .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                            .tag("method", method.getName())
+                            .publishPercentiles(0.5, 0.95, 0.99)
+                            .register(meterRegistry))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
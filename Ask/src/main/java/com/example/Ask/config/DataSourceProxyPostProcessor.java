@@ -0,0 +1,42 @@
+package com.example.Ask.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+// Wraps the application DataSource in a JDBC proxy so that every statement passes
+// through the registered QueryExecutionListener / MethodExecutionListener beans.
+// Only the "dataSource" bean is wrapped, so pools behind it are never counted twice.
+// Method listeners need every ResultSet proxied, so they are only added with app.sql.count-rows.
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryExecutionListener> queryListeners;
+    private final ObjectProvider<MethodExecutionListener> methodListeners;
+    private final boolean countRows;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> queryListeners,
+                                        ObjectProvider<MethodExecutionListener> methodListeners,
+                                        boolean countRows) {
+        this.queryListeners = queryListeners;
+        this.methodListeners = methodListeners;
+        this.countRows = countRows;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+            queryListeners.orderedStream().forEach(builder::listener);
+            if (countRows) {
+                methodListeners.orderedStream().forEach(builder::methodListener);
+                builder.proxyResultSet();
+            }
+            return builder.build();
+        }
+        return bean;
+    }
+}
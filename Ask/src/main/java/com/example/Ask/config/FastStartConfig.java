@@ -0,0 +1,29 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Service.TokenRevocationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class FastStartConfig {
+
+    // With spring.main.lazy-initialization (faststart profile) these are still created at
+    // startup: the schema migration and JPA bootstrap would otherwise land on the first
+    // request after the pod is marked ready, and TokenRevocationService owns scheduled jobs.
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class,
+                FlywayMigrationInitializer.class,
+                EntityManagerFactory.class,
+                SecurityFilterChain.class,
+                JwtUtil.class,
+                TokenRevocationService.class);
+    }
+}
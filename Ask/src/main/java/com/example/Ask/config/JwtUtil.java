@@ -1,6 +1,13 @@
 package com.example.Ask.config;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,23 +15,59 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.SecretKey;
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import com.example.Ask.Entities.User;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    // Bad or expired tokens arrive in bursts from stale clients; a few lines per minute are enough
+    private static final RateLimitedLogger rejectedTokens = new RateLimitedLogger(logger, 10, 60_000, 1);
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // The key and parser are immutable and thread-safe; build them once instead of per request
+    private SecretKey key;
+    private JwtParser parser;
+
+    private final Timer validationTimer;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.validationTimer = Timer.builder("jwt.validation")
+                .description("Time to verify and parse a JWT")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    // A secret that cannot sign HS512 tokens stops the startup here, rather than failing every login
+    @PostConstruct
+    public void init() {
+        try {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            if (key.getEncoded().length < 64) {
+                throw new WeakKeyException("HS512 needs at least 64 bytes, got " + key.getEncoded().length);
+            }
+        } catch (DecodingException | WeakKeyException e) {
+            throw new IllegalStateException("app.jwtSecret must be a base64-encoded key of at least 64 bytes; "
+                    + "set APP_JWTSECRET, e.g. to the output of 'openssl rand -base64 64'", e);
+        }
+        this.parser = Jwts.parser().verifyWith(key).build();
+    }
+
     // Generate JWT token for authentication
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
@@ -35,46 +78,55 @@ public class JwtUtil {
                 .collect(Collectors.toList());
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
+                .id(UUID.randomUUID().toString())
+                .subject(userPrincipal.getUsername())
                 .claim("roles", roles)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .issuedAt(new Date())
+                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                .signWith(key, Jwts.SIG.HS512)
                 .compact();
     }
 
     // Extract username from JWT token
     public String getUsernameFromToken(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    // Validate the token and return its claims, or null if it is not valid
+    public Claims parseClaims(String authToken) {
+        long start = System.nanoTime();
+        try {
+            return parser.parseSignedClaims(authToken).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTokens.warn("event=jwt.rejected reason={} message={}", e.getClass().getSimpleName(), e.getMessage());
+            return null;
+        } finally {
+            validationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Authorities carried in the "roles" claim
+    public List<SimpleGrantedAuthority> getAuthorities(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
     }
 
     // Validate JWT token
     public boolean validateToken(String authToken) {
         try {
-            logger.info("Validating JWT token");
-            logger.debug("Token: {}", authToken);
-            logger.debug("Secret key length: {}", jwtSecret.length());
-            
-            Claims claims = Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .parseClaimsJws(authToken)
-                    .getBody();
-            
-            logger.info("JWT validation successful");
-            logger.debug("Claims: {}", claims);
+            parser.parseSignedClaims(authToken);
             return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-            logger.error("Token: {}", authToken);
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-            logger.error("Token expiration: {}", e.getClaims().getExpiration());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            rejectedTokens.warn("event=jwt.rejected reason=expired expiredAt={}", e.getClaims().getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTokens.warn("event=jwt.rejected reason={} message={}", e.getClass().getSimpleName(), e.getMessage());
         }
 
         return false;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Entities.RevokedToken;
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+import com.example.Ask.Service.SnapshotService;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Reflection, proxy and resource hints for the native image (-Pnative).
+// Spring AOT covers the beans themselves; this lists what libraries reach through
+// reflection, JDK proxies or classpath resources at runtime.
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api instantiates its implementation classes by name (io.jsonwebtoken.lang.Classes)
+    private static final String[] JJWT_IMPL = {
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+    };
+
+    // Jakarta Mail loads its transport and content handlers by class name
+    private static final String[] MAIL = {
+            "org.eclipse.angus.mail.smtp.SMTPTransport",
+            "org.eclipse.angus.mail.smtp.SMTPSSLTransport",
+            "org.eclipse.angus.mail.handlers.text_plain",
+            "org.eclipse.angus.mail.handlers.text_html",
+            "org.eclipse.angus.mail.handlers.text_xml",
+            "org.eclipse.angus.mail.handlers.multipart_mixed",
+            "org.eclipse.angus.mail.handlers.message_rfc822",
+    };
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Entities are bound to and from JSON by the controllers and instantiated by Hibernate
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                Animal.class, Request.class, User.class, Role.class, AdoptionRequest.class, RevokedToken.class, Gender.class);
+        // Snapshot manifests are written and read back with Jackson
+        bindingRegistrar.registerReflectionHints(hints.reflection(), SnapshotService.Manifest.class);
+
+        for (String type : JJWT_IMPL) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        for (String type : MAIL) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("META-INF/javamail.*");
+        hints.resources().registerPattern("META-INF/mailcap");
+
+        // datasource-proxy wraps every JDBC object in a JDK proxy (see DataSourceProxyPostProcessor)
+        for (Class<?> jdbcType : new Class<?>[]{DataSource.class, Connection.class, Statement.class,
+                PreparedStatement.class, CallableStatement.class, ResultSet.class}) {
+            hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+        }
+
+        // Second-level cache regions, read by Ehcache when Hibernate starts
+        hints.resources().registerPattern("ehcache.xml");
+
+        // Boot only registers db/migration; the per-database migrations are scanned as well
+        hints.resources().registerPattern("db/migration-postgresql/*");
+        hints.resources().registerPattern("db/migration-h2/*");
+
+        // logback-spring.xml is read by Joran, which creates the appenders reflectively
+        hints.reflection().registerType(TypeReference.of("ch.qos.logback.classic.AsyncAppender"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
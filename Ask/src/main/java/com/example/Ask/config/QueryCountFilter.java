@@ -0,0 +1,203 @@
+package com.example.Ask.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+
+// Counts the JDBC statements (and, with app.sql.count-rows, rows) issued per request.
+// The counts go into the per-endpoint QueryStatsRegistry and a request attribute that tests
+// can assert on, and with app.sql.debug-headers into X-Query-* response headers (off by
+// default: they tell any client how the endpoint queries the database). Runs ahead of the
+// security chain so authentication queries are included.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = QueryCountFilter.class.getName() + ".stats";
+
+    private static final RateLimitedLogger nPlusOneLog =
+            new RateLimitedLogger(LoggerFactory.getLogger("sql.n_plus_one"), 10, 60_000, 1);
+
+    private final QueryStatsRegistry registry;
+    private final int nPlusOneThreshold;
+    private final boolean countRows;
+    private final boolean debugHeaders;
+
+    public QueryCountFilter(QueryStatsRegistry registry,
+                            @Value("${app.sql.n-plus-one-threshold:3}") int nPlusOneThreshold,
+                            @Value("${app.sql.count-rows:false}") boolean countRows,
+                            @Value("${app.sql.debug-headers:false}") boolean debugHeaders) {
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.countRows = countRows;
+        this.debugHeaders = debugHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryCounter.start();
+        HeaderWritingResponse wrapped = debugHeaders ? new HeaderWritingResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            if (wrapped != null) {
+                wrapped.writeHeaders();
+            }
+            QueryCounter.stop();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+
+            String endpoint = RequestEndpoint.of(request);
+            List<String> suspects = stats.suspectedNPlusOne(nPlusOneThreshold);
+            registry.record(endpoint, stats, suspects);
+            for (String sql : suspects) {
+                nPlusOneLog.warn("event=sql.n_plus_one endpoint={} statements={} sql={}",
+                        endpoint, stats.getStatements(), sql);
+            }
+        }
+    }
+
+    // Adds the headers just before the response commits. Statements issued after the
+    // first body bytes are flushed (large responses, lazy loading during serialization)
+    // only show up in the registry and the request attribute.
+    private final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        HeaderWritingResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written) {
+                return;
+            }
+            written = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (response.isCommitted()) {
+                return;
+            }
+            response.setHeader("X-Query-Count", Integer.toString(stats.getStatements()));
+            if (countRows) {
+                response.setHeader("X-Query-Rows", Long.toString(stats.getRows()));
+            }
+            int suspects = stats.suspectedNPlusOne(nPlusOneThreshold).size();
+            if (suspects > 0) {
+                response.setHeader("X-Query-N-Plus-One", Integer.toString(suspects));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writeHeaders();
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        writeHeaders();
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        writeHeaders();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writeHeaders();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                PrintWriter delegate = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) {
+                        writeHeaders();
+                        delegate.write(cbuf, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                        writeHeaders();
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() {
+                        writeHeaders();
+                        delegate.close();
+                    }
+                });
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.Ask.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+@Component
+public class QueryCountListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryCounter.current();
+        if (stats == null) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            stats.statement(query.getQuery(), bindHash(query));
+        }
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updated) {
+            stats.rows(Math.max(0, updated));
+        } else if (result instanceof int[] batch) {
+            for (int updated : batch) {
+                stats.rows(Math.max(0, updated));
+            }
+        }
+    }
+
+    private static int bindHash(QueryInfo query) {
+        int hash = 1;
+        for (List<ParameterSetOperation> parameterSet : query.getParametersList()) {
+            for (ParameterSetOperation operation : parameterSet) {
+                Object[] args = operation.getArgs();
+                hash = 31 * hash + (args.length > 1 ? Objects.hashCode(args[1]) : 0);
+            }
+        }
+        return hash;
+    }
+}
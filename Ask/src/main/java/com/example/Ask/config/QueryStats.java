@@ -0,0 +1,44 @@
+package com.example.Ask.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Statements and rows issued while serving one request. Confined to the request thread.
+public final class QueryStats {
+
+    private int statements;
+    private long rows;
+    private final Map<String, Set<Integer>> bindsBySql = new HashMap<>();
+
+    void statement(String sql, int bindHash) {
+        statements++;
+        bindsBySql.computeIfAbsent(sql, k -> new HashSet<>()).add(bindHash);
+    }
+
+    void rows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    // The same SELECT executed with at least `threshold` different bind values: the shape of an N+1
+    public List<String> suspectedNPlusOne(int threshold) {
+        List<String> suspects = new ArrayList<>();
+        for (Map.Entry<String, Set<Integer>> entry : bindsBySql.entrySet()) {
+            if (entry.getValue().size() >= threshold && entry.getKey().regionMatches(true, 0, "select", 0, 6)) {
+                suspects.add(entry.getKey());
+            }
+        }
+        return suspects;
+    }
+}
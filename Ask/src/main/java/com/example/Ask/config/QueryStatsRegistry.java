@@ -0,0 +1,83 @@
+package com.example.Ask.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-endpoint totals of the statements and rows issued by requests
+@Component
+public class QueryStatsRegistry {
+
+    private final Map<String, Entry> endpoints = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatsRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String endpoint, QueryStats stats, List<String> suspects) {
+        Entry entry = endpoints.computeIfAbsent(endpoint, k -> new Entry(k, meterRegistry));
+        entry.statementsSummary.record(stats.getStatements());
+        entry.requests.increment();
+        entry.statements.add(stats.getStatements());
+        entry.rows.add(stats.getRows());
+        entry.maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+        if (!suspects.isEmpty()) {
+            entry.nPlusOne.increment();
+            entry.nPlusOneCounter.increment();
+            entry.lastSuspect = suspects.get(0);
+        }
+    }
+
+    public List<EndpointQueryStats> snapshot() {
+        return endpoints.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(EndpointQueryStats::statements).reversed())
+                .toList();
+    }
+
+    public void clear() {
+        endpoints.clear();
+    }
+
+    public record EndpointQueryStats(String endpoint, long requests, long statements, long rows,
+                                     double statementsPerRequest, long maxStatements,
+                                     long nPlusOneRequests, String lastSuspect) {
+    }
+
+    private static final class Entry {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nPlusOne = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private volatile String lastSuspect;
+        private final DistributionSummary statementsSummary;
+        private final Counter nPlusOneCounter;
+
+        Entry(String endpoint, MeterRegistry meterRegistry) {
+            this.statementsSummary = DistributionSummary.builder("sql.statements.per.request")
+                    .tag("endpoint", endpoint)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.nPlusOneCounter = Counter.builder("sql.n_plus_one.suspected")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        EndpointQueryStats snapshot(String endpoint) {
+            long n = requests.sum();
+            long total = statements.sum();
+            return new EndpointQueryStats(endpoint, n, total, rows.sum(), n == 0 ? 0 : (double) total / n,
+                    maxStatements.get(), nPlusOne.sum(), lastSuspect);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.Ask.config;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Wraps a logger for noisy paths (bad tokens, 401s, mail failures).
+// At most `permits` events are written per window; the rest are counted and the
+// count is reported with the next event that gets through. Debug events can be
+// sampled one in `sampleRate` so that enabling DEBUG does not flood the log.
+public class RateLimitedLogger {
+
+    private final Logger logger;
+    private final int permits;
+    private final long windowNanos;
+    private final int sampleRate;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    public RateLimitedLogger(Logger logger, int permits, long windowMillis, int sampleRate) {
+        this.logger = logger;
+        this.permits = permits;
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void warn(String format, Object... args) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long dropped = acquire();
+        if (dropped < 0) {
+            return;
+        }
+        if (dropped > 0) {
+            logger.warn(format + " (suppressed={})", append(args, dropped));
+        } else {
+            logger.warn(format, args);
+        }
+    }
+
+    public void error(String format, Object... args) {
+        if (!logger.isErrorEnabled()) {
+            return;
+        }
+        long dropped = acquire();
+        if (dropped < 0) {
+            return;
+        }
+        if (dropped > 0) {
+            logger.error(format + " (suppressed={})", append(args, dropped));
+        } else {
+            logger.error(format, args);
+        }
+    }
+
+    public void debug(String format, Object... args) {
+        if (logger.isDebugEnabled() && sampleCounter.getAndIncrement() % sampleRate == 0) {
+            logger.debug(format, args);
+        }
+    }
+
+    // Returns the number of events suppressed since the last one written, or -1 if this one is suppressed
+    private long acquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() > permits) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+
+    private static Object[] append(Object[] args, long dropped) {
+        Object[] all = new Object[args.length + 1];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = dropped;
+        return all;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.Ask.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Primary/replica split, enabled with app.datasource.replica.enabled=true.
+// "dataSource" is a LazyConnectionDataSourceProxy: the physical connection is only taken
+// at the first statement, when the transaction's read-only flag is known. Read-only
+// transactions (@Transactional(readOnly = true), Spring Data finders) get it from
+// ReplicaRoutingDataSource, everything else from the primary. Each side has its own
+// Hikari pool (spring.datasource.hikari.* and app.datasource.replica.hikari.*).
+// WriteTrackingListener sees every statement through the datasource-proxy wrapper and
+// records users whose transactions changed rows.
+// The image is AOT-processed, which fixes @Conditional outcomes at build time, so these beans
+// always exist and app.datasource.replica.enabled is read at startup instead: when it is
+// false there is no replica pool and every connection comes from the primary.
+@Configuration
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Bound by hand rather than with @ConfigurationProperties, which binds against the
+    // declared DataSource type and would skip the Hikari settings
+    @Bean
+    public DataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                        @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                                        @Value("${app.datasource.replica.url:}") String url,
+                                        @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                        @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                        Environment environment) {
+        if (!enabled) {
+            return new DelegatingDataSource(primary);
+        }
+        if (url.isBlank()) {
+            throw new IllegalStateException("app.datasource.replica.enabled is set but app.datasource.replica.url is not");
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("app.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Qualifier("replicaDataSource") DataSource replica,
+                                         @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                                         @Value("${app.datasource.replica.lag-query}") String lagQuery,
+                                         @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                         MeterRegistry meterRegistry) {
+        return new ReplicaRouting(enabled, replica, lagQuery, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    public WriteTrackingListener writeTrackingListener(ReplicaRouting routing) {
+        return new WriteTrackingListener(routing);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting routing) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        if (routing.isEnabled()) {
+            proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, routing));
+        }
+        return proxy;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.Ask.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decides whether a read-only connection may come from the replica.
+// The replica is used only while its measured lag is below maxLagMs, and never for a
+// user who wrote through this instance within the last maxLagMs: any write older than
+// that is already visible on the replica, so users always read their own writes.
+// The per-user write times are local to this instance. When the replica is disabled
+// nothing is routed, checked or recorded.
+public class ReplicaRouting {
+
+    private static final RateLimitedLogger lagFailures =
+            new RateLimitedLogger(LoggerFactory.getLogger(ReplicaRouting.class), 5, 60_000, 1);
+
+    private final boolean enabled;
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    // Unknown until the first successful check: start on the primary
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRouting(boolean enabled, DataSource replicaDataSource, String lagQuery, long maxLagMs,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.replicaReads = Counter.builder("db.reads.routed").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("db.reads.routed").tag("target", "primary").register(meterRegistry);
+        Gauge.builder("db.replica.lag", this, r -> r.lagMs == Long.MAX_VALUE ? Double.NaN : r.lagMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean useReplica() {
+        if (!enabled) {
+            return false;
+        }
+        boolean replica = lagMs < maxLagMs && !recentlyWrote(currentUser());
+        (replica ? replicaReads : primaryReads).increment();
+        return replica;
+    }
+
+    public void recordWrite() {
+        if (!enabled) {
+            return;
+        }
+        String user = currentUser();
+        if (user != null) {
+            lastWriteByUser.put(user, System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            lagMs = lag == null ? 0 : lag.longValue();
+        } catch (RuntimeException e) {
+            lagMs = Long.MAX_VALUE;
+            lagFailures.warn("event=replica.lag_check_failed message={}", e.getMessage());
+        }
+        long cutoff = System.currentTimeMillis() - maxLagMs;
+        lastWriteByUser.values().removeIf(time -> time < cutoff);
+    }
+
+    // For tests and tools: treat the replica as lagging by this much until the next check
+    public void setLagMs(long lagMs) {
+        this.lagMs = lagMs;
+    }
+
+    private boolean recentlyWrote(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long last = lastWriteByUser.get(user);
+        return last != null && System.currentTimeMillis() - last < maxLagMs;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
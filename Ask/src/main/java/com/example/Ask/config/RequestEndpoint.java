@@ -0,0 +1,29 @@
+package com.example.Ask.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Names the endpoint the current thread is serving, e.g. "GET /api/animals/{id}".
+// Uses the matched mapping pattern so that path variables do not split the statistics.
+public final class RequestEndpoint {
+
+    private RequestEndpoint() {
+    }
+
+    public static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return of(servletAttributes.getRequest());
+        }
+        return "thread:" + Thread.currentThread().getName();
+    }
+
+    public static String of(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Unmatched paths are collapsed so that scanners cannot create unbounded metric tags
+        return request.getMethod() + " " + (pattern != null ? pattern : "<unmapped>");
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.Ask.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+
+// Counts rows read through ResultSet.next(). Registering any method listener makes the
+// JDBC proxy wrap result sets too, so DataSourceProxyPostProcessor only registers this
+// one with app.sql.count-rows (read at startup, not at AOT build time).
+@Component
+public class ResultSetRowCounter implements MethodExecutionListener {
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            QueryStats stats = QueryCounter.current();
+            if (stats != null) {
+                stats.rows(1);
+            }
+        }
+    }
+}
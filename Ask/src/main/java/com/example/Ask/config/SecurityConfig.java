@@ -1,6 +1,10 @@
 package com.example.Ask.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -48,11 +52,16 @@ public class SecurityConfig {
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses (/api/export) finish on an ASYNC dispatch of a request
+                        // that was already authorized on its original dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/login", "/api/auth/register").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/auth/verify-email").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/api/animals/Deny/{id}").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/user/role/add/**").authenticated()
-                        .requestMatchers("/actuator/health/**").permitAll()
+                        // Only reachable on management.server.port, which stays inside the cluster.
+                        // EndpointRequest also matches on that port's child context, path patterns do not.
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .requestMatchers("/v3/api-docs/**",
                                 "/v2/api-docs/**",
                                 "/swagger-ui/**",
@@ -0,0 +1,70 @@
+package com.example.Ask.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+// Logs statements slower than app.sql.slow-threshold-ms, attributed to the endpoint
+// that issued them. Bind values are redacted to their types unless explicitly enabled.
+@Component
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger("sql.slow");
+
+    private final SlowQueryRegistry registry;
+    private final long thresholdMs;
+    private final boolean logBindValues;
+
+    public SlowQueryListener(SlowQueryRegistry registry,
+                             @Value("${app.sql.slow-threshold-ms:200}") long thresholdMs,
+                             @Value("${app.sql.log-bind-values:false}") boolean logBindValues) {
+        this.registry = registry;
+        this.thresholdMs = thresholdMs;
+        this.logBindValues = logBindValues;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        if (elapsedMs < thresholdMs) {
+            return;
+        }
+        String endpoint = RequestEndpoint.current();
+        for (QueryInfo query : queryInfoList) {
+            registry.record(query.getQuery(), elapsedMs, endpoint);
+            logger.warn("event=sql.slow elapsedMs={} endpoint={} batchSize={} params={} sql={}",
+                    elapsedMs, endpoint, execInfo.getBatchSize(), describeParams(query), query.getQuery());
+        }
+    }
+
+    private String describeParams(QueryInfo query) {
+        List<List<ParameterSetOperation>> parameterSets = query.getParametersList();
+        if (parameterSets.isEmpty()) {
+            return "[]";
+        }
+        // For batches, the first parameter set is representative
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operation : parameterSets.get(0)) {
+            Object[] args = operation.getArgs();
+            Object value = args.length > 1 ? args[1] : null;
+            if (logBindValues) {
+                joiner.add(String.valueOf(value));
+            } else {
+                joiner.add(value == null ? "null" : value.getClass().getSimpleName());
+            }
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.Ask.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Aggregates slow statements by SQL text. Bounded: once full, the entry with the
+// smallest worst-case time is dropped to make room. Only slow statements get here,
+// so the linear scan on eviction is off the normal query path.
+@Component
+public class SlowQueryRegistry {
+
+    private final int capacity;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SlowQueryRegistry(@Value("${app.sql.slow-query-capacity:200}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void record(String sql, long elapsedMs, String endpoint) {
+        Entry entry = entries.get(sql);
+        if (entry == null) {
+            if (entries.size() >= capacity) {
+                evictFastest();
+            }
+            entry = entries.computeIfAbsent(sql, k -> new Entry());
+        }
+        entry.count.increment();
+        entry.totalMs.add(elapsedMs);
+        entry.maxMs.accumulateAndGet(elapsedMs, Math::max);
+        entry.lastEndpoint = endpoint;
+    }
+
+    public List<SlowQuery> top(int limit) {
+        return entries.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(SlowQuery::maxMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictFastest() {
+        entries.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().maxMs.get()))
+                .ifPresent(e -> entries.remove(e.getKey()));
+    }
+
+    public record SlowQuery(String sql, long count, long totalMs, long maxMs, long avgMs, String lastEndpoint) {
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+        private volatile String lastEndpoint;
+
+        SlowQuery snapshot(String sql) {
+            long n = count.sum();
+            long total = totalMs.sum();
+            return new SlowQuery(sql, n, total, maxMs.get(), n == 0 ? 0 : total / n, lastEndpoint);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Service.SnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+// Runs a snapshot backup or restore instead of serving traffic, then exits:
+//
+//   java -jar app.jar --spring.main.web-application-type=none --snapshot.backup=/backups/full
+//   java -jar app.jar --spring.main.web-application-type=none --snapshot.backup=/backups/inc1 --snapshot.base=/backups/full
+//   java -jar app.jar --spring.main.web-application-type=none --snapshot.restore=/backups/full,/backups/inc1
+//
+// Runners go before the readiness event, so the seeder never races a restore.
+@Component
+public class SnapshotCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCommand.class);
+
+    private final SnapshotService snapshotService;
+    private final ConfigurableApplicationContext context;
+
+    public SnapshotCommand(SnapshotService snapshotService, ConfigurableApplicationContext context) {
+        this.snapshotService = snapshotService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String backup = option(args, "snapshot.backup");
+        String restore = option(args, "snapshot.restore");
+        if (backup == null && restore == null) {
+            return;
+        }
+        int code = 0;
+        try {
+            if (backup != null) {
+                String base = option(args, "snapshot.base");
+                snapshotService.backup(Path.of(backup), base == null ? null : Path.of(base));
+            } else {
+                List<Path> chain = Arrays.stream(restore.split(",")).map(String::trim).map(Path::of).toList();
+                snapshotService.restore(chain);
+            }
+        } catch (Exception e) {
+            logger.error("event=snapshot.failed", e);
+            code = 1;
+        }
+        int exitCode = code;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.Ask.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+// "warmup" health contributor, part of the readiness group: OUT_OF_SERVICE until
+// WarmupRunner has driven enough synthetic traffic for latencies to settle
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    public WarmupHealthIndicator(WarmupRunner warmupRunner) {
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Health health() {
+        WarmupRunner.Progress progress = warmupRunner.progress();
+        Health.Builder builder = progress.done() ? Health.up() : Health.status(Status.OUT_OF_SERVICE);
+        return builder
+                .withDetail("rounds", progress.rounds())
+                .withDetail("lastP99Ms", progress.lastP99Micros() / 1000.0)
+                .withDetail("settled", progress.settled())
+                .build();
+    }
+}
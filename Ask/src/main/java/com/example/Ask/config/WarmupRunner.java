@@ -0,0 +1,207 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Dto.UserDto;
+import com.example.Ask.Entities.AdoptionRequest;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+import com.example.Ask.Service.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drives synthetic loopback traffic through the whole stack (security filter chain,
+// JWT parsing, controllers, repositories, Hikari connections, Jackson) before the pod
+// reports ready, so the JIT and the connection pool are warm when real traffic arrives.
+// Traffic runs in rounds; once the p99 of consecutive rounds stops moving by more than
+// the tolerance (or the time budget is spent) the warmup health contributor turns UP.
+@Component
+public class WarmupRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    // Read-only endpoints only: warm-up must not change any data
+    private static final List<String> PATHS = List.of("/api/animals", "/api/requests", "/api/users");
+
+    public record Progress(boolean done, int rounds, long lastP99Micros, boolean settled) {
+    }
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final long maxDurationMs;
+    private final int roundRequests;
+    private final int concurrency;
+    private final double tolerance;
+    private final int settledRounds;
+
+    private volatile int port = -1;
+    private volatile Progress progress;
+
+    public WarmupRunner(JwtUtil jwtUtil,
+                        TokenRevocationService tokenRevocationService,
+                        BCryptPasswordEncoder passwordEncoder,
+                        ObjectMapper objectMapper,
+                        @Value("${app.warmup.enabled:true}") boolean enabled,
+                        @Value("${app.warmup.max-duration-ms:60000}") long maxDurationMs,
+                        @Value("${app.warmup.round-requests:200}") int roundRequests,
+                        @Value("${app.warmup.concurrency:4}") int concurrency,
+                        @Value("${app.warmup.tolerance:0.15}") double tolerance,
+                        @Value("${app.warmup.settled-rounds:2}") int settledRounds) {
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxDurationMs = maxDurationMs;
+        this.roundRequests = roundRequests;
+        this.concurrency = concurrency;
+        this.tolerance = tolerance;
+        this.settledRounds = settledRounds;
+        this.progress = new Progress(!enabled, 0, 0, false);
+    }
+
+    public Progress progress() {
+        return progress;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (!"management".equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (progress.done()) {
+            return;
+        }
+        if (port <= 0) {
+            // No embedded server (e.g. a mock web environment): nothing to warm up through
+            progress = new Progress(true, 0, 0, false);
+            return;
+        }
+        Thread thread = new Thread(this::run, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000L;
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername("warmup")
+                .password("")
+                .roles("USER")
+                .build();
+        String token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "warmup-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        int rounds = 0;
+        int stable = 0;
+        long previousP99 = 0;
+        try {
+            warmLocalPaths();
+            while (System.nanoTime() < deadline && stable < settledRounds) {
+                long p99 = round(client, workers, token);
+                rounds++;
+                if (previousP99 > 0 && Math.abs(p99 - previousP99) <= previousP99 * tolerance) {
+                    stable++;
+                } else {
+                    stable = 0;
+                }
+                previousP99 = p99;
+                progress = new Progress(false, rounds, p99, false);
+            }
+        } catch (Exception e) {
+            logger.warn("event=warmup.failed message={}", e.getMessage());
+        } finally {
+            workers.shutdownNow();
+            Claims claims = jwtUtil.parseClaims(token);
+            if (claims != null) {
+                tokenRevocationService.revoke(claims);
+            }
+            boolean settled = stable >= settledRounds;
+            progress = new Progress(true, rounds, previousP99, settled);
+            logger.info("event=warmup.done rounds={} p99Ms={} settled={} tookMs={}",
+                    rounds, previousP99 / 1000.0, settled, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Paths the loopback GETs do not reach: BCrypt and the login response, and the adoption serializers
+    private void warmLocalPaths() throws Exception {
+        AdoptionRequest adoption = new AdoptionRequest();
+        adoption.setUser(new User("warmup", "warmup@localhost", ""));
+        adoption.getUser().getRoles().add(new Role("ROLE_USER"));
+        adoption.setAnimal(new Animal(1, 1, null, "Dog", "warmup"));
+        adoption.setStatus("pending");
+        for (int i = 0; i < 200; i++) {
+            objectMapper.writeValueAsBytes(adoption);
+            objectMapper.writeValueAsBytes(UserDto.from(adoption.getUser()));
+        }
+        String hash = passwordEncoder.encode("warmup");
+        for (int i = 0; i < 3; i++) {
+            passwordEncoder.matches("warmup", hash);
+        }
+    }
+
+    // Sends roundRequests requests over `concurrency` workers; returns the round's p99 in microseconds
+    private long round(HttpClient client, ExecutorService workers, String token) throws Exception {
+        long[] latencies = new long[roundRequests];
+        AtomicInteger next = new AtomicInteger();
+        Future<?>[] futures = new Future<?>[concurrency];
+        for (int w = 0; w < concurrency; w++) {
+            futures[w] = workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < roundRequests) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATHS.get(i % PATHS.size())))
+                            .timeout(Duration.ofSeconds(10))
+                            .header("Authorization", "Bearer " + token)
+                            .GET()
+                            .build();
+                    long t0 = System.nanoTime();
+                    try {
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        // Status and failures do not matter here, only the code paths taken
+                    }
+                    latencies[i] = (System.nanoTime() - t0) / 1_000;
+                }
+                return null;
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+    }
+}
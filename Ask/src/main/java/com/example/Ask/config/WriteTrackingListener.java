@@ -0,0 +1,87 @@
+package com.example.Ask.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Records the acting user's write for read-your-writes routing, once per transaction and only
+// when a statement actually changed rows: reads on the primary (non-read-only transactions that
+// only select, row locks, inserts that hit ON CONFLICT DO NOTHING) leave the user on the replica.
+// The write is recorded when the transaction commits, or right away for auto-commit work.
+public class WriteTrackingListener implements QueryExecutionListener {
+
+    private static final Object WROTE = new Object();
+
+    private final ReplicaRouting routing;
+
+    public WriteTrackingListener(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!routing.isEnabled() || !execInfo.isSuccess() || !changedRows(execInfo, queryInfoList)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            routing.recordWrite();
+        } else if (!TransactionSynchronizationManager.hasResource(WROTE)) {
+            TransactionSynchronizationManager.bindResource(WROTE, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    routing.recordWrite();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WROTE);
+                }
+            });
+        }
+    }
+
+    private static boolean changedRows(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Object result = execInfo.getResult();
+        if (result instanceof Number updated) {
+            return updated.longValue() > 0;
+        }
+        if (result instanceof int[] batch) {
+            for (int updated : batch) {
+                // Statement.SUCCESS_NO_INFO (-2) is a success without a count
+                if (updated != 0 && updated != java.sql.Statement.EXECUTE_FAILED) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (result instanceof long[] batch) {
+            for (long updated : batch) {
+                if (updated != 0 && updated != java.sql.Statement.EXECUTE_FAILED) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // Statement.execute(): no count without another round trip, so go by the statement kind
+        if (Boolean.FALSE.equals(result)) {
+            for (QueryInfo query : queryInfoList) {
+                QueryType type = QueryUtils.getQueryType(query.getQuery());
+                if (type == QueryType.INSERT || type == QueryType.UPDATE || type == QueryType.DELETE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
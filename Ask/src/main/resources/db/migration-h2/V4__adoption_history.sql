@@ -0,0 +1,21 @@
+-- Same columns as the Postgres migration, without partitioning
+
+create table if not exists adoption_history (
+    id bigint generated by default as identity,
+    archived_at timestamp(6) not null,
+    animal_id integer not null,
+    animal_name varchar(255),
+    animal_type varchar(255),
+    animal_age integer,
+    animal_gender varchar(255),
+    adopter_id integer,
+    adopter_username varchar(20),
+    adoption_request_id bigint,
+    adoption_request_user_id integer,
+    adoption_request_status varchar(255),
+    primary key (id, archived_at)
+);
+
+create index if not exists idx_adoption_history_archived_at on adoption_history (archived_at);
+create index if not exists idx_adoption_history_animal_id on adoption_history (animal_id);
+create index if not exists idx_adoption_history_adopter_id on adoption_history (adopter_id);
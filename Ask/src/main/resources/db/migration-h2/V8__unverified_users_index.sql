@@ -0,0 +1,2 @@
+-- Same lookup as the Postgres migration; H2 has no partial indexes
+create index if not exists idx_users_unverified_expiry on users (email_verified, verification_token_expiry);
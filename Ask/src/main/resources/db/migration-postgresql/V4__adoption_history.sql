@@ -0,0 +1,25 @@
+-- Adopted animals and their adoption requests, moved out of the live tables by
+-- AdoptionArchiveService. Partitioned by month of archiving; the monthly partitions are
+-- created ahead of time by the service, the default partition only catches what falls outside.
+
+create table if not exists adoption_history (
+    id bigserial,
+    archived_at timestamp(6) not null,
+    animal_id integer not null,
+    animal_name varchar(255),
+    animal_type varchar(255),
+    animal_age integer,
+    animal_gender varchar(255),
+    adopter_id integer,
+    adopter_username varchar(20),
+    adoption_request_id bigint,
+    adoption_request_user_id integer,
+    adoption_request_status varchar(255),
+    primary key (id, archived_at)
+) partition by range (archived_at);
+
+create table if not exists adoption_history_default partition of adoption_history default;
+
+create index if not exists idx_adoption_history_archived_at on adoption_history (archived_at);
+create index if not exists idx_adoption_history_animal_id on adoption_history (animal_id);
+create index if not exists idx_adoption_history_adopter_id on adoption_history (adopter_id);
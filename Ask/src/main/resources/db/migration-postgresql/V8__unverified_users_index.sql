@@ -0,0 +1,4 @@
+-- Expired registrations for UserCleanupService. Partial: verified accounts, nearly all of the
+-- table, stay out of the index, so it only grows with the backlog the sweeper works through.
+create index if not exists idx_users_unverified_expiry on users (verification_token_expiry)
+    where email_verified = false;
@@ -0,0 +1,63 @@
+-- Schema as previously generated by hibernate ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+create table if not exists roles (
+    id integer generated by default as identity,
+    name varchar(20),
+    primary key (id)
+);
+
+create table if not exists users (
+    id integer generated by default as identity,
+    username varchar(20) not null,
+    email varchar(50) not null,
+    password varchar(120) not null,
+    email_verified boolean,
+    verification_token varchar(255),
+    verification_token_expiry timestamp(6),
+    created_at timestamp(6),
+    last_login timestamp(6),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table if not exists user_roles (
+    user_id integer not null,
+    role_id integer not null,
+    primary key (role_id, user_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+);
+
+create table if not exists animal (
+    id integer generated by default as identity,
+    name varchar(255),
+    type varchar(255),
+    age integer,
+    gender varchar(255) check (gender in ('Male', 'Female')),
+    req integer,
+    user_id integer,
+    primary key (id)
+);
+
+create table if not exists request (
+    id integer generated by default as identity,
+    name varchar(255),
+    type varchar(255),
+    age integer,
+    gender varchar(255) check (gender in ('Male', 'Female')),
+    admin_approved integer,
+    doc_approved integer,
+    primary key (id)
+);
+
+create table if not exists adoption_request (
+    id bigint generated by default as identity,
+    user_id integer,
+    animal_id integer,
+    status varchar(255),
+    primary key (id),
+    constraint fk_adoption_request_user foreign key (user_id) references users (id),
+    constraint fk_adoption_request_animal foreign key (animal_id) references animal (id)
+);
@@ -0,0 +1,10 @@
+create table if not exists revoked_tokens (
+    jti varchar(64) not null,
+    username varchar(20),
+    expires_at timestamp(6) not null,
+    revoked_at timestamp(6) not null,
+    primary key (jti)
+);
+
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
@@ -0,0 +1,16 @@
+-- Seeding and lookups by name
+create index if not exists idx_animal_name on animal (name);
+create index if not exists idx_request_name on request (name);
+
+-- Catalog views filter on the request flag and type
+create index if not exists idx_animal_req_type on animal (req, type);
+
+-- Email verification link lookup
+create index if not exists idx_users_verification_token on users (verification_token);
+
+-- Pending adoption lists and a user's own adoptions
+create index if not exists idx_adoption_request_status on adoption_request (status);
+create index if not exists idx_adoption_request_user_id on adoption_request (user_id);
+
+-- Postgres does not index foreign keys; deleting an animal scans adoption_request without it
+create index if not exists idx_adoption_request_animal_id on adoption_request (animal_id);
@@ -0,0 +1,7 @@
+-- Dashboard read model kept by StatsService: one running total per counter name.
+-- Replicas add their deltas to it; it is rebuilt from the source tables when empty.
+create table if not exists stats_counters (
+    name varchar(100) not null,
+    total bigint not null,
+    primary key (name)
+);
@@ -0,0 +1,10 @@
+-- Review work queue (ReviewQueueService): who holds each review step of a request, and until
+-- when. An expired lease counts as unclaimed.
+alter table request add column if not exists doc_claimed_by varchar(20);
+alter table request add column if not exists doc_claim_expires_at timestamp(6);
+alter table request add column if not exists admin_claimed_by varchar(20);
+alter table request add column if not exists admin_claim_expires_at timestamp(6);
+
+-- Each queue takes the lowest ids still waiting for its step
+create index if not exists idx_request_doc_queue on request (doc_approved, id);
+create index if not exists idx_request_admin_queue on request (admin_approved, id);
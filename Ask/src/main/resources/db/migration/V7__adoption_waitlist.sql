@@ -0,0 +1,9 @@
+-- Adoption waitlists (WaitlistService). The applicant an animal is reserved for has a
+-- 'pending' adoption request; everyone behind them is 'waiting', served by priority and then
+-- in arrival order. waitlist_version is bumped on every change to an animal's waitlist, so
+-- replicas can tell whether their in-memory copy is current.
+alter table adoption_request add column if not exists priority integer default 0 not null;
+alter table adoption_request add column if not exists requested_at timestamp(6);
+alter table animal add column if not exists waitlist_version bigint default 0 not null;
+
+create index if not exists idx_adoption_request_waitlist on adoption_request (animal_id, status, priority, id);
@@ -0,0 +1,56 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AnimalControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    // A valid token whose user has since been deleted
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        UserDetails gone = User.withUsername("deleted-user").password("").roles("USER").build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(gone, null, gone.getAuthorities()));
+    }
+
+    @Test
+    void tokenOfADeletedUserIsUnauthorized() throws Exception {
+        Integer animalId = jdbcTemplate.queryForObject("select min(id) from animal", Integer.class);
+        mvc.perform(get("/api/animals/recommended").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(put("/api/animals/Request/" + animalId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+}
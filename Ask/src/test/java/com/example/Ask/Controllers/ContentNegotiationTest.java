@@ -0,0 +1,72 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        UserDetails user = User.withUsername("user").password("").roles("USER").build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void anyAcceptStillGetsJson() throws Exception {
+        mvc.perform(get("/api/animals").accept(MediaType.ALL).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void cborAndSmileCarryTheSameAnimals() throws Exception {
+        AnimalDto[] json = read(new ObjectMapper(), MediaType.APPLICATION_JSON);
+        assertThat(read(new CBORMapper(), MediaType.APPLICATION_CBOR)).isEqualTo(json).isNotEmpty();
+        assertThat(read(new SmileMapper(), SMILE)).isEqualTo(json);
+    }
+
+    private AnimalDto[] read(ObjectMapper mapper, MediaType type) throws Exception {
+        byte[] body = mvc.perform(get("/api/animals").accept(type).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(type))
+                .andReturn().getResponse().getContentAsByteArray();
+        return mapper.readValue(body, AnimalDto[].class);
+    }
+}
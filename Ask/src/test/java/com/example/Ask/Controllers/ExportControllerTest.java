@@ -0,0 +1,84 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        UserDetails admin = User.withUsername("admin").password("").roles("ADMIN").build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @Test
+    void animalsStreamAsOneJsonObjectPerLine() throws Exception {
+        String body = export("/api/export/animals");
+        Integer animals = jdbcTemplate.queryForObject("select count(*) from animal", Integer.class);
+        assertThat(body.lines()).hasSize(animals).allMatch(line -> line.startsWith("{\"id\":"));
+    }
+
+    @Test
+    void requestsStreamAsCsvWithAHeader() throws Exception {
+        String body = export("/api/export/requests?format=csv");
+        Integer requests = jdbcTemplate.queryForObject("select count(*) from request", Integer.class);
+        assertThat(body.lines().findFirst()).hasValue("id,name,type,age,gender,admin_approved,doc_approved");
+        assertThat(body.lines()).hasSize(requests + 1);
+    }
+
+    @Test
+    void unknownDatasetIsNotFound() throws Exception {
+        mvc.perform(get("/api/export/passwords").header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportsGetTheExportTimeout() throws Exception {
+        MvcResult started = mvc.perform(get("/api/export/animals").header("Authorization", "Bearer " + token)).andReturn();
+        assertEquals(1_800_000, started.getRequest().getAsyncContext().getTimeout());
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private String export(String uri) throws Exception {
+        MvcResult started = mvc.perform(get(uri).header("Authorization", "Bearer " + token)).andReturn();
+        return mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The async executor here never runs a task, so an export's body never starts: the request
+// can only end by timing out, the way it does when the client is gone before the body runs
+@SpringBootTest(properties = "app.export.max-concurrent=1")
+@AutoConfigureMockMvc
+class ExportPermitTest {
+
+    // Ordered after Spring Boot's own configurer, which would set the real executor
+    @TestConfiguration
+    @Order
+    static class StalledAsync implements WebMvcConfigurer {
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            AsyncTaskExecutor stalled = task -> {
+            };
+            configurer.setTaskExecutor(stalled);
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        UserDetails admin = User.withUsername("admin").password("").roles("ADMIN").build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @Test
+    void permitComesBackWhenTheRequestTimesOutBeforeTheBodyRuns() throws Exception {
+        MvcResult first = mvc.perform(get("/api/export/animals").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(get("/api/export/animals").header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests());
+
+        timeOut(first);
+
+        MvcResult second = mvc.perform(get("/api/export/animals").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        timeOut(second);
+    }
+
+    private static void timeOut(MvcResult result) throws Exception {
+        MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+        AsyncEvent event = new AsyncEvent(context, context.getRequest(), context.getResponse());
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(event);
+        }
+        context.complete();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReviewQueueControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    private String doctor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        UserDetails user = User.withUsername("doctor").password("").roles("DOCTOR").build();
+        doctor = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void eachQueueIsOpenOnlyToItsReviewers() throws Exception {
+        mvc.perform(post("/api/review/doctor/claim").header("Authorization", "Bearer " + doctor))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/review/admin/claim").header("Authorization", "Bearer " + doctor))
+                .andExpect(status().isForbidden());
+        mvc.perform(post("/api/review/nurse/claim").header("Authorization", "Bearer " + doctor))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.Ask.Controllers;
+
+import com.example.Ask.Service.CacheInvalidationService;
+import com.example.Ask.Service.InitialService;
+import com.example.Ask.config.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Ask.config.QueryCountAssertions.maxQueries;
+import static com.example.Ask.config.QueryCountAssertions.noNPlusOne;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.sql.debug-headers=true")
+@AutoConfigureMockMvc
+class UserControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    private String token;
+    private String prefix;
+
+    // Seeding runs once the application is ready; without waiting the table may still be empty
+    // and an N+1 over roles would go unnoticed. Several users, each with two roles, make it show.
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        prefix = "qc" + UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < 6; i++) {
+            String username = prefix + i;
+            jdbcTemplate.update("insert into users (username, email, password, email_verified) values (?, ?, 'x', true)",
+                    username, username + "@example.com");
+            jdbcTemplate.update("insert into user_roles (user_id, role_id) select u.id, r.id from users u, roles r " +
+                    "where u.username = ? and r.name in ('ROLE_USER', 'ROLE_DOCTOR')", username);
+        }
+        UserDetails admin = User.withUsername("admin").password("").roles("ADMIN").build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    // Other tests count users, so the ones added here do not outlive the test
+    @AfterEach
+    void tearDown() {
+        List<Integer> ids = jdbcTemplate.queryForList("select id from users where username like ?", Integer.class,
+                prefix + "%");
+        jdbcTemplate.update("delete from user_roles where user_id in (select id from users where username like ?)",
+                prefix + "%");
+        jdbcTemplate.update("delete from users where username like ?", prefix + "%");
+        cacheInvalidationService.evictLocallyAndNotify(com.example.Ask.Entities.User.class, ids);
+    }
+
+    @Test
+    void listingUsersIssuesAtMostTwoQueries() throws Exception {
+        mvc.perform(get("/api/users").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Query-Count"))
+                .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(10)))
+                .andExpect(jsonPath("$[?(@.username == '" + prefix + "5')].roles[*].name", hasItem("ROLE_DOCTOR")))
+                .andExpect(maxQueries(2))
+                .andExpect(noNPlusOne());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.AdoptionHistoryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class AdoptionArchiveServiceTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private AdoptionArchiveService adoptionArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void adoptedAnimalMovesToHistoryWithItsRequests() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        Integer userId = jdbcTemplate.queryForObject("select id from users where username = 'user'", Integer.class);
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req, user_id) values ('Archived', 3, 'Female', 'Cat', 1, ?)", userId);
+        Integer animalId = jdbcTemplate.queryForObject("select id from animal where name = 'Archived'", Integer.class);
+        jdbcTemplate.update("insert into adoption_request (user_id, animal_id, status) values (?, ?, 'approved')", userId, animalId);
+        jdbcTemplate.update("insert into adoption_request (user_id, animal_id, status) values (?, ?, 'denied')", userId, animalId);
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+
+        assertEquals(1, adoptionArchiveService.archive(List.of(animalId, animalId, -1)));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from animal where id = ?", Integer.class, animalId));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from adoption_request where animal_id = ?", Integer.class, animalId));
+        List<AdoptionHistoryDto> history = adoptionArchiveService.animalHistory(animalId);
+        assertThat(history).hasSize(2)
+                .allMatch(row -> row.animalName().equals("Archived") && row.adopterUsername().equals("user"))
+                .extracting(AdoptionHistoryDto::adoptionRequestStatus).containsExactlyInAnyOrder("approved", "denied");
+        assertThat(adoptionArchiveService.history(before, null, 10)).containsAll(history);
+        assertThat(adoptionArchiveService.history(null, before, 10)).doesNotContainAnyElementsOf(history);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CacheInvalidationServiceTest {
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidation;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void notificationFromAnotherReplicaEvictsTheEntity() {
+        Animal animal = animalService.saveAnimal(new Animal(null, 2, Gender.Male, "Dog", "Evicted"));
+        animalService.getAnimal(animal.getId());
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.containsEntity(Animal.class, animal.getId()));
+
+        cacheInvalidation.apply("othernode Request:1,2;Animal:" + animal.getId());
+
+        assertFalse(cache.containsEntity(Animal.class, animal.getId()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.Ask.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchIndexTest {
+
+    private static final String[] TYPES = {"Dog", "Cat", "Rabbit", "Parrot"};
+
+    @Test
+    void usersGetAnimalsLikeTheOnesTheyAskedFor() {
+        MatchIndex index = new MatchIndex.Builder()
+                .animal(1, "Cat", 2, "Female")
+                .animal(2, "Dog", 9, "Male")
+                .animal(3, "dog", 1, "Male")
+                .animal(4, "Rabbit", 1, "Female")
+                .interest(10, "Dog", 1, "Male")
+                .interest(10, "Dog", 2, "Male")
+                .interest(11, "Cat", 3, "Female")
+                .interest(12, "Cat", 2, "Female")
+                .build();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        assertArrayEquals(new int[]{3, 2}, index.top(10, 2, pool));
+        // Smoothed towards the overall mix, a dog still beats the rabbit nobody asked for
+        assertArrayEquals(new int[]{1, 3, 2, 4}, index.top(11, 10, pool));
+        // No history: the overall mix (two cat requests, two dog requests) decides
+        assertEquals(1, index.top(99, 1, pool)[0]);
+        assertArrayEquals(new int[0], MatchIndex.empty().top(10, 5, pool));
+    }
+
+    @Test
+    void parallelRankingMatchesABruteForceSort() {
+        MatchIndex.Builder builder = new MatchIndex.Builder();
+        // Few distinct feature combinations, so most scores tie and the id order decides
+        for (int id = 100_000; id > 0; id--) {
+            builder.animal(id, TYPES[id % TYPES.length], id % 17, id % 3 == 0 ? "Male" : "Female");
+        }
+        builder.interest(7, "Parrot", 4, "Male").interest(7, "Parrot", 5, "Male").interest(7, "Dog", 5, "Male").interest(8, "Cat", 12, "Female");
+        MatchIndex index = builder.build();
+
+        int[] expected = bruteForceTop20ForUser7();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, index.top(7, 20, single));
+            assertArrayEquals(expected, index.top(7, 20, parallel));
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+        assertEquals(20, expected.length);
+        // All from the best bucket (parrot, male, the closest age), lowest ids first
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(3, expected[i] % 4);
+            assertEquals(0, expected[i] % 3);
+            assertEquals(expected[0] % 17, expected[i] % 17);
+            if (i > 0) {
+                assertTrue(expected[i] > expected[i - 1]);
+            }
+        }
+    }
+
+    // Scores every animal of the test above with MatchIndex's formula, in the same float
+    // operations, and sorts them all: four requests overall (parrot 2, dog 1, cat 1; male 3,
+    // female 1; mean age 6.5), three of them user 7's (parrot 2, dog 1; male 3; ages summing to 14)
+    private static int[] bruteForceTop20ForUser7() {
+        float requests = 4;
+        float total = 3 + 2f;
+        Map<String, Float> ownTypes = Map.of("Parrot", 2f, "Dog", 1f);
+        Map<String, Float> allTypes = Map.of("Parrot", 2f, "Dog", 1f, "Cat", 1f);
+        float globalMeanAge = (4 + 5 + 5 + 12) / requests;
+        float meanAge = (14 + 2f * globalMeanAge) / total;
+        Map<Integer, Float> scores = new HashMap<>();
+        for (int id = 1; id <= 100_000; id++) {
+            String type = TYPES[id % TYPES.length];
+            boolean male = id % 3 == 0;
+            float typeScore = 0.6f * (ownTypes.getOrDefault(type, 0f) + 2f * (allTypes.getOrDefault(type, 0f) / requests)) / total;
+            float ageScore = 0.25f / (1 + Math.abs(id % 17 - meanAge) / 3f);
+            float genderScore = 0.15f * ((male ? 3f : 0f) + 2f * ((male ? 3f : 1f) / requests)) / total;
+            scores.put(id, typeScore + ageScore + genderScore);
+        }
+        List<Integer> ids = new ArrayList<>(scores.keySet());
+        ids.sort(Comparator.<Integer, Float>comparing(scores::get).reversed().thenComparing(Comparator.naturalOrder()));
+        return ids.stream().limit(20).mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.Ask.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class ReviewQueueServiceTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update("insert into request (name, age, gender, type, admin_approved, doc_approved) " +
+                    "values ('Queued', 1, 'Male', 'Dog', 0, 0)");
+        }
+        jdbcTemplate.update("update request set doc_claimed_by = null, doc_claim_expires_at = null");
+    }
+
+    @Test
+    void concurrentClaimsGetDisjointBatchesWithoutWaiting() throws Exception {
+        CountDownLatch claimedFirst = new CountDownLatch(1);
+        CountDownLatch claimedSecond = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // The first claim keeps its row locks until the second one has run
+        CompletableFuture<List<Integer>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<Integer> ids = reviewQueueService.claim(ReviewQueueService.Stage.DOCTOR, "doctor1", 2).ids();
+            claimedFirst.countDown();
+            try {
+                claimedSecond.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        claimedFirst.await(10, TimeUnit.SECONDS);
+        List<Integer> second = reviewQueueService.claim(ReviewQueueService.Stage.DOCTOR, "doctor2", 2).ids();
+        claimedSecond.countDown();
+
+        // Postgres hands the second reviewer the next two rows; H2 locks every row the first
+        // claim matched, so there the second one gets nothing, but it still does not wait
+        List<Integer> firstIds = first.get(10, TimeUnit.SECONDS);
+        assertThat(firstIds).hasSize(2);
+        assertThat(second).hasSizeLessThanOrEqualTo(2).noneMatch(firstIds::contains);
+    }
+
+    @Test
+    void approvingNeedsALiveLease() {
+        Integer id = reviewQueueService.claim(ReviewQueueService.Stage.DOCTOR, "doctor1", 1).ids().get(0);
+
+        assertNull(reviewQueueService.approve(ReviewQueueService.Stage.DOCTOR, "doctor2", id));
+        assertEquals(true, reviewQueueService.claimedByOther(ReviewQueueService.Stage.DOCTOR, "doctor2", id));
+
+        // Once the lease runs out the request is back in the queue for anyone
+        jdbcTemplate.update("update request set doc_claim_expires_at = ? where id = ?",
+                java.sql.Timestamp.valueOf(java.time.LocalDateTime.now().minusMinutes(1)), id);
+        assertNull(reviewQueueService.approve(ReviewQueueService.Stage.DOCTOR, "doctor1", id));
+        assertThat(reviewQueueService.claim(ReviewQueueService.Stage.DOCTOR, "doctor2", 1).ids()).containsExactly(id);
+
+        assertNotNull(reviewQueueService.approve(ReviewQueueService.Stage.DOCTOR, "doctor2", id));
+        assertEquals(1, jdbcTemplate.queryForObject("select doc_approved from request where id = ?", Integer.class, id));
+        assertThat(reviewQueueService.claim(ReviewQueueService.Stage.DOCTOR, "doctor2", 20).ids()).doesNotContain(id);
+    }
+
+    @Test
+    void doctorAndAdminApprovingAtOnceBothCount() throws Exception {
+        String name = "Both-" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate.update("insert into request (name, age, gender, type, admin_approved, doc_approved) " +
+                "values (?, 1, 'Male', 'Dog', 0, 0)", name);
+        Integer id = jdbcTemplate.queryForObject("select id from request where name = ?", Integer.class, name);
+        CountDownLatch adminApproved = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // The admin's approval commits only after the doctor's has started
+        CompletableFuture<Void> admin = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            requestService.approve(id, false);
+            adminApproved.countDown();
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        adminApproved.await(10, TimeUnit.SECONDS);
+        CompletableFuture<Void> doctor = CompletableFuture.runAsync(() -> requestService.approve(id, true));
+        admin.get(10, TimeUnit.SECONDS);
+        doctor.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from request where id = ?", Integer.class, id));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from animal where name = ?", Integer.class, name));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Ask.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void revokedTokensAreFoundAndOthersAreNot() {
+        RevocationIndex index = new RevocationIndex(HOUR, 1024, 4);
+        long expiry = 10 * HOUR + 5;
+        for (int i = 0; i < 500; i++) {
+            index.add("revoked-" + i, expiry);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(index.isRevoked("revoked-" + i, expiry));
+            assertFalse(index.isRevoked("active-" + i, expiry));
+        }
+        assertFalse(index.isRevoked("revoked-1", expiry + 2 * HOUR));
+    }
+
+    @Test
+    void purgeDropsBucketsThatHaveFullyExpired() {
+        RevocationIndex index = new RevocationIndex(HOUR, 1024, 4);
+        index.add("old", 2 * HOUR + 10);
+        index.add("current", 5 * HOUR + 10);
+
+        assertEquals(1, index.purgeExpired(5 * HOUR));
+        assertFalse(index.isRevoked("old", 2 * HOUR + 10));
+        assertTrue(index.isRevoked("current", 5 * HOUR + 10));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Ask.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedUserLookupIsServedFromTheCache() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userService.loadUserByUsername("admin");
+        statistics.clear();
+        userService.loadUserByUsername("admin");
+
+        // user, its roles and the username lookup all come from the cache
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "users").meter());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.Ask.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotFilesTest {
+
+    private static final long WINDOW = 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesAndReadsBackAcrossWindowBoundaries() throws IOException {
+        byte[] data = new byte[10_007];
+        new Random(42).nextBytes(data);
+        Path file = dir.resolve("table.copy");
+
+        SnapshotFiles.MappedOutputStream out = new SnapshotFiles.MappedOutputStream(file, WINDOW);
+        Random chunks = new Random(7);
+        for (int offset = 0; offset < data.length; ) {
+            int length = Math.min(data.length - offset, chunks.nextInt(2500));
+            out.write(data, offset, length);
+            offset += length;
+        }
+        out.close();
+
+        // Truncated to what was written, not to the last mapped window
+        assertEquals(data.length, Files.size(file));
+        assertEquals(data.length, out.bytes());
+
+        CRC32C expected = new CRC32C();
+        expected.update(data);
+        assertEquals(SnapshotFiles.hex(expected.getValue()), out.crc32c());
+        assertEquals(out.crc32c(), SnapshotFiles.crc32c(file, WINDOW));
+
+        try (InputStream in = new SnapshotFiles.MappedInputStream(file, WINDOW)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void emptyFile() throws IOException {
+        Path file = dir.resolve("empty.copy");
+        new SnapshotFiles.MappedOutputStream(file, WINDOW).close();
+
+        assertEquals(0, Files.size(file));
+        try (InputStream in = new SnapshotFiles.MappedInputStream(file, WINDOW)) {
+            assertEquals(-1, in.read());
+        }
+    }
+}
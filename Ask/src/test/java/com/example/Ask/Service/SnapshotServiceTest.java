@@ -0,0 +1,152 @@
+package com.example.Ask.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// COPY (FORMAT binary), exported snapshots and xmin only exist on Postgres
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class SnapshotServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private AdoptionArchiveService adoptionArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path backups;
+
+    @Test
+    void fullAndIncrementalSnapshotsRestoreTheDataAsBackedUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        Integer userId = jdbcTemplate.queryForObject("select id from users where username = 'user'", Integer.class);
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req, user_id) values ('Full', 2, 'Male', 'Dog', 0, ?)", userId);
+        // The newest animal, archived: only adoption_history still has its id
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req, user_id) values ('Archived', 4, 'Female', 'Cat', 1, ?)", userId);
+        Integer archivedId = jdbcTemplate.queryForObject("select id from animal where name = 'Archived'", Integer.class);
+        adoptionArchiveService.archive(List.of(archivedId));
+        Path full = backups.resolve("full");
+        snapshotService.backup(full, null);
+
+        // Changes for the incremental: an insert, an update and a delete
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req, user_id) values ('Incremental', 1, 'Female', 'Cat', 0, ?)", userId);
+        jdbcTemplate.update("update animal set age = 5 where name = 'Full'");
+        Integer requestId = jdbcTemplate.queryForObject("select max(id) from request", Integer.class);
+        if (requestId != null) {
+            jdbcTemplate.update("delete from request where id = ?", requestId);
+        }
+        Path incremental = backups.resolve("incremental");
+        snapshotService.backup(incremental, full);
+        Map<String, List<Map<String, Object>>> backedUp = contents();
+
+        // Lost by the restore
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req) values ('After', 1, 'Male', 'Dog', 0)");
+        jdbcTemplate.update("delete from adoption_request");
+        // A waitlist another replica may still hold in memory at this version
+        jdbcTemplate.update("update animal set waitlist_version = 7 where name = 'Full'");
+
+        snapshotService.restore(List.of(full, incremental));
+
+        assertEquals(backedUp, contents());
+        assertEquals(1, adoptionArchiveService.animalHistory(archivedId).size());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from animal where waitlist_version <= 7", Integer.class));
+        jdbcTemplate.update("insert into animal (name, age, gender, type, req) values ('New', 1, 'Male', 'Dog', 0)");
+        assertTrue(jdbcTemplate.queryForObject("select id from animal where name = 'New'", Integer.class) > archivedId);
+    }
+
+    @Test
+    void failedRestoreLeavesTheDataAsItWas() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        Path full = backups.resolve("full");
+        snapshotService.backup(full, null);
+        Map<String, List<Map<String, Object>>> before = contents();
+
+        // Checksums still match, but the last table's data no longer fits its columns, so the
+        // restore fails after the truncate and the earlier tables have been loaded
+        List<SnapshotService.Table> tables = SnapshotService.LEVELS.stream().flatMap(List::stream).toList();
+        String last = tables.get(tables.size() - 1).name();
+        SnapshotService.Manifest manifest = snapshotService.readManifest(full);
+        SnapshotService.TableEntry entry = manifest.table(last);
+        Files.write(full.resolve(entry.data().file()), new byte[]{'P', 'G', 'C', 'O', 'P', 'Y'});
+        rewriteChecksum(full, manifest, last);
+
+        assertThrows(Exception.class, () -> snapshotService.restore(List.of(full)));
+
+        assertEquals(before, contents());
+    }
+
+    private void rewriteChecksum(Path dir, SnapshotService.Manifest manifest, String table) throws Exception {
+        List<SnapshotService.TableEntry> entries = manifest.tables().stream().map(entry -> {
+            if (!entry.name().equals(table)) {
+                return entry;
+            }
+            Path file = dir.resolve(entry.data().file());
+            try {
+                SnapshotService.TableFile data = new SnapshotService.TableFile(entry.data().file(), Files.size(file),
+                        SnapshotFiles.crc32c(file, 1 << 20));
+                return new SnapshotService.TableEntry(entry.name(), entry.columns(), entry.keys(), entry.rows(), data,
+                        entry.keyFile());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+        SnapshotService.Manifest changed = new SnapshotService.Manifest(manifest.version(), manifest.kind(),
+                manifest.createdAt(), manifest.baseChangeSeq(), manifest.changeSeq(), entries);
+        Path file = dir.resolve(SnapshotService.MANIFEST);
+        Files.delete(file);
+        objectMapper.writeValue(file.toFile(), changed);
+    }
+
+    private Map<String, List<Map<String, Object>>> contents() {
+        Map<String, List<Map<String, Object>>> contents = new LinkedHashMap<>();
+        for (List<SnapshotService.Table> level : SnapshotService.LEVELS) {
+            for (SnapshotService.Table table : level) {
+                contents.put(table.name(), jdbcTemplate.queryForList("select " + String.join(", ", table.columns())
+                        + " from " + table.name() + " order by " + String.join(", ", table.keys())));
+            }
+        }
+        return contents;
+    }
+}
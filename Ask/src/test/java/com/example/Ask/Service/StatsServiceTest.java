@@ -0,0 +1,72 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.StatsDto;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.Entities.Request;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class StatsServiceTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private AdoptionArchiveService adoptionArchiveService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void countersFollowTheWritesAndMatchARecount() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        statsService.rebuild();
+        StatsDto before = statsService.current();
+
+        Request request = requestService.saveRequest(new Request(null, 2, Gender.Male, "Dog", "Counted"));
+        request.setDocApproved(1);
+        requestService.saveRequest(request);
+        Animal kept = animalService.saveAnimal(new Animal(null, 1, Gender.Female, "Cat", "Kept"));
+        waitlistService.join(kept.getId(), userService.findByUsername("user").getId());
+        // An edit does not release the reservation
+        kept.setReq(0);
+        animalService.saveAnimal(kept);
+        Animal adopted = animalService.saveAnimal(new Animal(null, 4, Gender.Male, "Iguana", "Adopted"));
+        adoptionArchiveService.archive(List.of(adopted.getId()));
+
+        StatsDto after = statsService.current();
+        assertEquals(before.pendingRequests() + 1, after.pendingRequests());
+        assertEquals(before.requestsAwaitingDoctor(), after.requestsAwaitingDoctor());
+        assertEquals(before.requestsAwaitingAdmin() + 1, after.requestsAwaitingAdmin());
+        assertEquals(before.animalsAvailable(), after.animalsAvailable());
+        assertEquals(before.animalsRequested() + 1, after.animalsRequested());
+        assertEquals(1L, after.adoptionsByMonth().get(YearMonth.now().toString()).get("Iguana"));
+
+        // Flushed, read back and recounted from the tables, the totals stay the same
+        statsService.flush();
+        assertEquals(after, statsService.current());
+        statsService.rebuild();
+        assertEquals(after, statsService.current());
+    }
+}
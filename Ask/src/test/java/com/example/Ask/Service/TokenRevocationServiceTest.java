@@ -0,0 +1,41 @@
+package com.example.Ask.Service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void revokingATokenAnotherReplicaAlreadyStoredIsANoOp() {
+        String jti = UUID.randomUUID().toString();
+        Date expiration = new Date(System.currentTimeMillis() + 3_600_000);
+        // Stored by the other replica, not yet seen by this one's index
+        jdbcTemplate.update("insert into revoked_tokens (jti, username, expires_at, revoked_at) values (?, ?, ?, ?)",
+                jti, "user", new Timestamp(expiration.getTime()), Timestamp.valueOf(LocalDateTime.now()));
+        Claims claims = Jwts.claims().id(jti).subject("user").expiration(expiration).build();
+
+        tokenRevocationService.revoke(claims);
+
+        assertTrue(tokenRevocationService.isRevoked(claims));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from revoked_tokens where jti = ?", Integer.class, jti));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.cleanup.batch-size=2", "app.cleanup.pause-ms=0"})
+class UserCleanupServiceTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private UserCleanupService userCleanupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void expiredRegistrationsAreDeletedInBatchesAndReferencedOnesCompacted() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(3);
+        List<Integer> abandoned = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            abandoned.add(register("abandoned" + i, false, longAgo));
+        }
+        int referenced = register("referenced", false, longAgo);
+        jdbcTemplate.update("insert into adoption_request (user_id, status) values (?, 'denied')", referenced);
+        register("fresh", false, LocalDateTime.now().plusHours(12));
+        register("verified", true, longAgo);
+
+        // Five deleted and one compacted, two per batch; the rest are not touched
+        assertEquals(6, userCleanupService.sweep());
+        assertEquals(List.of("fresh", "referenced", "verified"), jdbcTemplate.queryForList(
+                "select username from users where username in ('abandoned0', 'abandoned1', 'abandoned2', " +
+                        "'abandoned3', 'abandoned4', 'referenced', 'fresh', 'verified') order by username", String.class));
+        assertNull(jdbcTemplate.queryForObject(
+                "select verification_token from users where id = ?", String.class, referenced));
+        // By id: the users rows are gone, so a join on them would find nothing either way
+        String ids = abandoned.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from user_roles where user_id in (" + ids + ")", Integer.class));
+        assertEquals(0, userCleanupService.sweep());
+    }
+
+    @Test
+    void deletedUsersDropOutOfTheCachedUsernameLookup() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        register("ghost", false, LocalDateTime.now().minusDays(3));
+        // Caches the username -> id query result
+        assertTrue(userRepository.findByUsername("ghost").isPresent());
+
+        userCleanupService.sweep();
+
+        assertTrue(userRepository.findByUsername("ghost").isEmpty());
+    }
+
+    private int register(String username, boolean verified, LocalDateTime expiry) {
+        jdbcTemplate.update("insert into users (username, email, password, email_verified, verification_token, " +
+                        "verification_token_expiry, created_at) values (?, ?, 'x', ?, ?, ?, ?)",
+                username, username + "@example.com", verified, "token-" + username, Timestamp.valueOf(expiry),
+                Timestamp.valueOf(expiry.minusHours(24)));
+        int id = jdbcTemplate.queryForObject("select id from users where username = ?", Integer.class, username);
+        jdbcTemplate.update("insert into user_roles (user_id, role_id) select ?, id from roles where name = 'ROLE_USER'", id);
+        return id;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.Ask.Service;
+
+import com.example.Ask.Dto.WaitlistEntryDto;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class WaitlistServiceTest {
+
+    @Autowired
+    private InitialService initialService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Integer> users;
+    private int animalId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        initialService.seeded().get(60, TimeUnit.SECONDS);
+        users = jdbcTemplate.queryForList("select id from users order by id", Integer.class);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> connection.prepareStatement("insert into animal (name, age, gender, type, req) " +
+                "values ('Waitlisted', 3, 'Male', 'Dog', 0)", new String[]{"id"}), keys);
+        animalId = keys.getKey().intValue();
+    }
+
+    @Test
+    void applicantsAreServedInArrivalOrderUnlessPrioritized() {
+        assertEquals("pending", waitlistService.join(animalId, users.get(0)));
+        assertEquals("waiting", waitlistService.join(animalId, users.get(1)));
+        assertEquals("waiting", waitlistService.join(animalId, users.get(2)));
+        assertEquals("waiting", waitlistService.join(animalId, users.get(3)));
+        // Joining again keeps the user's place
+        assertEquals("waiting", waitlistService.join(animalId, users.get(1)));
+        assertEquals(List.of(users.get(0), users.get(1), users.get(2), users.get(3)), userIds());
+
+        WaitlistEntryDto last = waitlistService.waitlist(animalId).get(3);
+        assertTrue(waitlistService.setPriority(animalId, last.requestId(), 5));
+        assertEquals(List.of(users.get(0), users.get(3), users.get(1), users.get(2)), userIds());
+
+        waitlistService.deny(animalId);
+        assertEquals(List.of(users.get(3), users.get(1), users.get(2)), userIds());
+        assertEquals(users.get(3), reservedFor());
+        assertEquals(List.of("denied", "waiting", "waiting", "pending"), jdbcTemplate.queryForList(
+                "select status from adoption_request where animal_id = ? order by id", String.class, animalId));
+
+        assertTrue(waitlistService.withdraw(animalId, users.get(1)));
+        waitlistService.deny(animalId);
+        waitlistService.deny(animalId);
+        assertEquals(List.of(), userIds());
+        assertNull(reservedFor());
+        assertEquals(0, jdbcTemplate.queryForObject("select req from animal where id = ?", Integer.class, animalId));
+    }
+
+    @Test
+    void concurrentJoinsReserveTheAnimalOnce() {
+        List<CompletableFuture<String>> joins = users.stream()
+                .map(user -> CompletableFuture.supplyAsync(() -> waitlistService.join(animalId, user)))
+                .toList();
+        List<String> statuses = joins.stream().map(CompletableFuture::join).toList();
+
+        assertEquals(1, statuses.stream().filter("pending"::equals).count());
+        assertEquals(users.size(), jdbcTemplate.queryForObject(
+                "select count(distinct user_id) from adoption_request where animal_id = ?", Integer.class, animalId));
+        assertEquals(waitlistService.waitlist(animalId).get(0).userId(), reservedFor());
+        assertEquals(users.size(), waitlistService.waitlist(animalId).size());
+    }
+
+    @Test
+    void aReleasedAnimalGoesToTheLineNotToTheNewcomer() {
+        waitlistService.join(animalId, users.get(0));
+        waitlistService.join(animalId, users.get(1));
+
+        // An edit keeps the reservation, whatever req it sends
+        animalService.saveAnimal(new Animal(animalId, 4, Gender.Male, "Dog", "Renamed"));
+        assertEquals(users.get(0), reservedFor());
+
+        // Released behind the waitlist's back, the current applicant keeps it
+        jdbcTemplate.update("update animal set req = 0, user_id = null where id = ?", animalId);
+        assertEquals("waiting", waitlistService.join(animalId, users.get(2)));
+        assertEquals(users.get(0), reservedFor());
+        assertEquals(List.of(users.get(0), users.get(1), users.get(2)), userIds());
+
+        // With nobody pending, the head of the line gets it
+        jdbcTemplate.update("update adoption_request set status = 'denied' where animal_id = ? and user_id = ?",
+                animalId, users.get(0));
+        jdbcTemplate.update("update animal set req = 0, user_id = null, waitlist_version = waitlist_version + 1 " +
+                "where id = ?", animalId);
+        assertEquals("waiting", waitlistService.join(animalId, users.get(3)));
+        assertEquals(users.get(1), reservedFor());
+        assertEquals(List.of(users.get(1), users.get(2), users.get(3)), userIds());
+        assertEquals("pending", jdbcTemplate.queryForObject(
+                "select status from adoption_request where animal_id = ? and user_id = ?", String.class, animalId, users.get(1)));
+    }
+
+    @Test
+    void deletingARequestedAnimalTakesItsRequestsWithIt() {
+        waitlistService.join(animalId, users.get(0));
+        waitlistService.join(animalId, users.get(1));
+        waitlistService.waitlist(animalId);
+
+        animalService.Delanimal(animalService.getAnimal(animalId));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from animal where id = ?", Integer.class, animalId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from adoption_request where animal_id = ?", Integer.class, animalId));
+    }
+
+    private List<Integer> userIds() {
+        return waitlistService.waitlist(animalId).stream().map(WaitlistEntryDto::userId).toList();
+    }
+
+    private Integer reservedFor() {
+        return jdbcTemplate.queryForObject("select user_id from animal where id = ?", Integer.class, animalId);
+    }
+}
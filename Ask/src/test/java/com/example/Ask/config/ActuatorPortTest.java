@@ -0,0 +1,39 @@
+package com.example.Ask.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// Scrapes and probes go to the management port; the application port does not serve them
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class ActuatorPortTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void prometheusIsOnlyServedOnTheManagementPort() {
+        assertNotEquals(serverPort, managementPort);
+        assertEquals(HttpStatus.OK, rest.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/health/liveness", String.class).getStatusCode());
+        assertNotEquals(HttpStatus.OK, rest.getForEntity(
+                "http://localhost:" + serverPort + "/actuator/prometheus", String.class).getStatusCode());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Ask.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET =
+            "hhnRTcMBluohylmevf/T0ugZKpRvN/jfZBPBTIZsZkY4MUzAIp2u0rJ579b8oZjDmBFq0+IECUL8EDkbKWMOkA==";
+
+    @Test
+    void secretsThatCannotSignHs512StopTheStartup() {
+        assertThrows(IllegalStateException.class, () -> jwtUtil("ChangeThisSecretKeyToSomethingStrong123!"));
+        // Valid base64, but only 32 bytes
+        assertThrows(IllegalStateException.class, () -> jwtUtil("q2Vt3c7L0m1rN8o5p6s9t2u4v7w0x3y6z9A2B5C8D1E="));
+    }
+
+    @Test
+    void issuedTokensParseBack() {
+        JwtUtil jwtUtil = jwtUtil(SECRET);
+        User principal = new User("user", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = jwtUtil.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals("user", jwtUtil.getUsernameFromToken(token));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), jwtUtil.getAuthorities(jwtUtil.parseClaims(token)));
+    }
+
+    private static JwtUtil jwtUtil(String secret) {
+        JwtUtil jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
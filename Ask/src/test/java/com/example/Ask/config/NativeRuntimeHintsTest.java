@@ -0,0 +1,42 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Entities.Animal;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void everyHintedTypeExists() {
+        hints.reflection().typeHints().forEach(hint ->
+                assertThatCode(() -> Class.forName(hint.getType().getName()))
+                        .as(hint.getType().getName())
+                        .doesNotThrowAnyException());
+    }
+
+    @Test
+    void coversJwtMailJdbcProxiesAndEntities() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(io.jsonwebtoken.impl.DefaultJwtParserBuilder.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/javamail.default.providers")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, Connection.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Animal.class, "getName")).accepts(hints);
+    }
+}
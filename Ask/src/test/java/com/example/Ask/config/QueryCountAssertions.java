@@ -0,0 +1,35 @@
+package com.example.Ask.config;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// MockMvc matchers over the statements counted by QueryCountFilter, e.g.
+// mvc.perform(get("/api/users")).andExpect(maxQueries(2));
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static ResultMatcher maxQueries(int max) {
+        return result -> {
+            QueryStats stats = stats(result.getRequest().getAttribute(QueryCountFilter.STATS_ATTRIBUTE));
+            assertTrue(stats.getStatements() <= max,
+                    "Expected at most " + max + " queries but " + stats.getStatements() + " were issued");
+        };
+    }
+
+    public static ResultMatcher noNPlusOne() {
+        return result -> {
+            QueryStats stats = stats(result.getRequest().getAttribute(QueryCountFilter.STATS_ATTRIBUTE));
+            assertTrue(stats.suspectedNPlusOne(3).isEmpty(),
+                    "Suspected N+1 statements: " + stats.suspectedNPlusOne(3));
+        };
+    }
+
+    private static QueryStats stats(Object attribute) {
+        assertNotNull(attribute, "QueryCountFilter did not run for this request");
+        return (QueryStats) attribute;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Ask.config;
+
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.Service.AnimalService;
+import com.example.Ask.Service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Primary and replica are two separate H2 databases; the replica has a row the primary
+// does not, so every read shows which side served it
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.lag-query=select 0",
+        "app.datasource.replica.lag-check-interval-ms=3600000",
+        "app.datasource.replica.max-lag-ms=5000"
+})
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaRouting routing;
+
+    @BeforeAll
+    static void migrateReplica() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replica)
+                .locations("classpath:db/migration", "classpath:db/migration-h2").load().migrate();
+        new JdbcTemplate(replica).update(
+                "insert into animal (name, age, gender, type, req) values ('ReplicaOnly', 1, 'Male', 'Dog', 0)");
+    }
+
+    @BeforeEach
+    void checkLag() {
+        routing.checkLag();
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsGoToTheReplicaAndWritersReadTheirOwnWrites() {
+        actAs("bob");
+        assertTrue(names(animalService.getAnimals()).contains("ReplicaOnly"));
+
+        actAs("alice");
+        animalService.saveAnimal(new Animal(null, 3, Gender.Female, "Cat", "AliceCat"));
+        List<String> seenByAlice = names(animalService.getAnimals());
+        assertTrue(seenByAlice.contains("AliceCat"));
+        assertFalse(seenByAlice.contains("ReplicaOnly"));
+
+        actAs("bob");
+        assertTrue(names(animalService.getAnimals()).contains("ReplicaOnly"));
+    }
+
+    @Test
+    void readingFromThePrimaryDoesNotCountAsAWrite() {
+        actAs("carol");
+        // A read-write transaction on the primary that changes nothing
+        userService.findByUsername("carol");
+        assertTrue(names(animalService.getAnimals()).contains("ReplicaOnly"));
+    }
+
+    @Test
+    void laggingReplicaSendsEveryoneToThePrimary() {
+        routing.setLagMs(60_000);
+        actAs("bob");
+        assertFalse(names(animalService.getAnimals()).contains("ReplicaOnly"));
+    }
+
+    private static void actAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+
+    private static List<String> names(List<Animal> animals) {
+        return animals.stream().map(Animal::getName).toList();
+    }
+}
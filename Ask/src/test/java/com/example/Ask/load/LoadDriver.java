@@ -0,0 +1,185 @@
+package com.example.Ask.load;
+
+import com.example.Ask.load.LoadSettings.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop workload: `concurrency` workers, each logged in as its own synthetic
+// user, pick the next operation from the weighted mix and send it as soon as the
+// previous one returns. Latencies are recorded per operation once the warm-up is over.
+class LoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final URI base;
+    private final LoadSettings settings;
+    private final SyntheticDataGenerator.Seeded seeded;
+    private final String password;
+    private final String adminPassword;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Operation[] wheel;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicInteger nextRequest;
+    private final AtomicInteger nextAdoptable;
+    private final int browseMaxId;
+
+    private String adminToken;
+    private volatile boolean recording;
+
+    LoadDriver(URI base, LoadSettings settings, SyntheticDataGenerator.Seeded seeded, String password, String adminPassword) {
+        this.base = base;
+        this.settings = settings;
+        this.seeded = seeded;
+        this.password = password;
+        this.adminPassword = adminPassword;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.wheel = buildWheel(settings.mix());
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(op, new LongAdder());
+        }
+        this.nextRequest = new AtomicInteger(seeded.minRequestId());
+        this.nextAdoptable = new AtomicInteger(seeded.maxAnimalId());
+        this.browseMaxId = seeded.minAnimalId() + (seeded.maxAnimalId() - seeded.minAnimalId()) / 2;
+    }
+
+    LoadReport run() throws Exception {
+        adminToken = login("admin", adminPassword);
+        if (adminToken == null) {
+            throw new IllegalStateException("Admin login failed");
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        for (int w = 0; w < settings.concurrency(); w++) {
+            long seed = settings.seed() + w;
+            workers.submit(() -> {
+                work(new SplittableRandom(seed), end);
+                return null;
+            });
+        }
+        Thread.sleep(settings.warmup().toMillis());
+        recording = true;
+        long measureStart = System.nanoTime();
+        workers.shutdown();
+        workers.awaitTermination(settings.duration().toMillis() + 120_000, TimeUnit.MILLISECONDS);
+        recording = false;
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        return LoadReport.of(settings, seconds, latencies, errors);
+    }
+
+    private void work(SplittableRandom random, long end) throws Exception {
+        String token = login(randomUser(random), password);
+        while (System.nanoTime() < end) {
+            Operation op = wheel[random.nextInt(wheel.length)];
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(op, random, token);
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (recording) {
+                latencies.get(op).recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1_000));
+                if (!ok) {
+                    errors.get(op).increment();
+                }
+            }
+        }
+    }
+
+    private boolean execute(Operation op, SplittableRandom random, String token) throws Exception {
+        return switch (op) {
+            case LOGIN -> login(randomUser(random), password) != null;
+            case BROWSE -> send(get("/api/animals/" + random.nextInt(seeded.minAnimalId(), browseMaxId + 1), token));
+            case BROWSE_LIST -> send(get("/api/animals", token));
+            case REQUEST_ANIMAL -> send(put("/api/animals/Request/" + random.nextInt(seeded.minAnimalId(), browseMaxId + 1), token));
+            case APPROVE -> send(put("/api/requests/Approve/" + next(nextRequest, 1, seeded.minRequestId(), seeded.maxRequestId()), adminToken));
+            case ACCEPT_ADOPTION -> send(post("/api/animals/" + next(nextAdoptable, -1, browseMaxId + 1, seeded.maxAnimalId()) + "/accept-adoption", adminToken));
+        };
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        return mapper.readTree(response.body()).path("token").asText(null);
+    }
+
+    private boolean send(HttpRequest request) throws Exception {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return authorized(path, token).GET().build();
+    }
+
+    private HttpRequest put(String path, String token) {
+        return authorized(path, token).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, String token) {
+        return authorized(path, token).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private String randomUser(SplittableRandom random) {
+        return SyntheticDataGenerator.USER_PREFIX + random.nextInt(settings.users());
+    }
+
+    // Hands out each id once, wrapping around when the range is used up
+    private static int next(AtomicInteger counter, int step, int min, int max) {
+        int id = counter.getAndAdd(step);
+        int span = max - min + 1;
+        return min + Math.floorMod(id - min, span);
+    }
+
+    // One slot per unit of weight, so picking an operation is a single array lookup
+    private static Operation[] buildWheel(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(op);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+}
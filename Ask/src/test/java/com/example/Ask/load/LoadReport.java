@@ -0,0 +1,71 @@
+package com.example.Ask.load;
+
+import com.example.Ask.load.LoadSettings.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Throughput and latency percentiles of a run, per operation and in total (latencies in ms)
+record LoadReport(LoadSettings settings, double seconds, List<Row> rows, Row total) {
+
+    record Row(String operation, long count, long errors, double throughput,
+               double p50, double p90, double p99, double p999, double max) {
+
+        static Row of(String operation, Histogram histogram, long errors, double seconds) {
+            long count = histogram.getTotalCount();
+            return new Row(operation, count, errors, count / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadReport of(LoadSettings settings, double seconds, Map<Operation, Histogram> latencies, Map<Operation, LongAdder> errors) {
+        List<Row> rows = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Operation op : Operation.values()) {
+            Histogram histogram = latencies.get(op);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long opErrors = errors.get(op).sum();
+            rows.add(Row.of(op.name().toLowerCase(), histogram, opErrors, seconds));
+            all.add(histogram);
+            allErrors += opErrors;
+        }
+        return new LoadReport(settings, seconds, rows, Row.of("total", all, allErrors, seconds));
+    }
+
+    double errorRate() {
+        return total.count() == 0 ? 0 : (double) total.errors() / total.count();
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Load run: concurrency=%d measured=%.1fs users=%d animals=%d requests=%d adoptions=%d%n",
+                settings.concurrency(), seconds, settings.users(), settings.animals(), settings.requests(), settings.adoptions()));
+        out.append(String.format("%-16s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max"));
+        for (Row row : rows) {
+            append(out, row);
+        }
+        append(out, total);
+        return out.toString();
+    }
+
+    private static void append(StringBuilder out, Row row) {
+        out.append(String.format("%-16s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                row.operation(), row.count(), row.errors(), row.throughput(),
+                row.p50(), row.p90(), row.p99(), row.p999(), row.max()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Ask.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Knobs of a load run, read from -Dload.* system properties.
+// Defaults give a run of about a minute on a laptop; scale the row counts up to
+// millions against Postgres for realistic data volumes.
+record LoadSettings(int users,
+                    int animals,
+                    int requests,
+                    int adoptions,
+                    int concurrency,
+                    Duration warmup,
+                    Duration duration,
+                    Map<Operation, Integer> mix,
+                    double maxErrorRate,
+                    long seed) {
+
+    enum Operation {
+        LOGIN, BROWSE, BROWSE_LIST, REQUEST_ANIMAL, APPROVE, ACCEPT_ADOPTION
+    }
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.users", 10_000),
+                Integer.getInteger("load.animals", 100_000),
+                Integer.getInteger("load.requests", 100_000),
+                Integer.getInteger("load.adoptions", 50_000),
+                Integer.getInteger("load.concurrency", 32),
+                Duration.ofSeconds(Long.getLong("load.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 60)),
+                parseMix(System.getProperty("load.mix", "login=2,browse=60,browse_list=0,request_animal=20,approve=15,accept_adoption=3")),
+                Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01")),
+                Long.getLong("load.seed", 42));
+    }
+
+    // "login=2,browse=60,..." -> weights per operation; missing operations get weight 0
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad load.mix entry: " + part);
+            }
+            weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
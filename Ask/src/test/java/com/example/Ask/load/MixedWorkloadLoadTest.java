@@ -0,0 +1,82 @@
+package com.example.Ask.load;
+
+import com.example.Ask.Service.InitialService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// End-to-end load run against the real controllers, security and database.
+// Excluded from the normal build; run it with
+//   mvn -Ploadtest test -Dload.concurrency=64 -Dload.durationSeconds=120
+// and point it at a local Postgres with the usual -Dspring.datasource.* properties.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MixedWorkloadLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(MixedWorkloadLoadTest.class);
+
+    private static final String PASSWORD = "load-test-password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private InitialService initialService;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        // Roles and the admin account are seeded asynchronously after startup
+        initialService.seeded().get(2, TimeUnit.MINUTES);
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        SyntheticDataGenerator.Seeded seeded = new SyntheticDataGenerator(jdbcTemplate, settings.seed())
+                .seed(settings, passwordEncoder.encode(PASSWORD));
+
+        URI base = URI.create("http://localhost:" + port);
+        // admin/admin is created by InitialService
+        LoadReport report = new LoadDriver(base, settings, seeded, PASSWORD, "admin").run();
+        String text = report.format();
+        logger.info("\n{}", text);
+        Files.writeString(Path.of("target", "load-report.txt"), text);
+
+        assertThat(report.total().count()).isPositive();
+        assertThat(report.errorRate()).isLessThanOrEqualTo(settings.maxErrorRate());
+    }
+
+    // Every login sends a notification mail; swallow them instead of timing SMTP failures
+    @TestConfiguration
+    static class NoMailConfig {
+
+        @Bean
+        JavaMailSender javaMailSender() {
+            return new JavaMailSenderImpl() {
+                @Override
+                protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                }
+            };
+        }
+    }
+}
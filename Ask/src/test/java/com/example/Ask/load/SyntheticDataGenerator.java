@@ -0,0 +1,138 @@
+package com.example.Ask.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+// Bulk-loads users, animals, requests and adoption requests with JDBC batch inserts.
+// Rows go straight into the tables, bypassing JPA, and every user shares one
+// password hash, so millions of rows load in seconds rather than hours.
+// On Postgres add reWriteBatchedInserts=true to the JDBC URL for multi-row inserts.
+class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final String USER_PREFIX = "load";
+
+    private static final int BATCH = 5_000;
+    private static final String[] TYPES = {"Dog", "Cat", "Rabbit", "Parrot", "Hamster", "Turtle"};
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final String[] STATUSES = {"pending", "pending", "approved", "denied"};
+
+    private final JdbcTemplate jdbc;
+    private final SplittableRandom random;
+
+    SyntheticDataGenerator(JdbcTemplate jdbc, long seed) {
+        this.jdbc = jdbc;
+        this.random = new SplittableRandom(seed);
+    }
+
+    record Seeded(int minUserId, int maxUserId, int minAnimalId, int maxAnimalId, int minRequestId, int maxRequestId) {
+    }
+
+    Seeded seed(LoadSettings settings, String passwordHash) {
+        long start = System.nanoTime();
+        insertUsers(settings.users(), passwordHash);
+        insertAnimals(settings.animals());
+        insertRequests(settings.requests());
+
+        int[] users = range("select min(id), max(id) from users where username like '" + USER_PREFIX + "%'");
+        int[] animals = range("select min(id), max(id) from animal");
+        int[] requests = range("select min(id), max(id) from request");
+        // Adoption requests only point at the lower half of the animals: the upper half is
+        // reserved for accept-adoption, which deletes the animal
+        insertAdoptions(settings.adoptions(), users, new int[]{animals[0], animals[0] + (animals[1] - animals[0]) / 2});
+
+        logger.info("event=load.seeded users={} animals={} requests={} adoptions={} tookMs={}",
+                settings.users(), settings.animals(), settings.requests(), settings.adoptions(),
+                (System.nanoTime() - start) / 1_000_000);
+        return new Seeded(users[0], users[1], animals[0], animals[1], requests[0], requests[1]);
+    }
+
+    private void insertUsers(int count, String passwordHash) {
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        for (int from = 0; from < count; from += BATCH) {
+            int base = from;
+            int size = Math.min(BATCH, count - from);
+            jdbc.batchUpdate("insert into users (username, email, password, email_verified, created_at) values (?, ?, ?, true, ?)",
+                    new Batch(size, (ps, i) -> {
+                        int n = base + i;
+                        ps.setString(1, USER_PREFIX + n);
+                        ps.setString(2, USER_PREFIX + n + "@load.local");
+                        ps.setString(3, passwordHash);
+                        ps.setTimestamp(4, created);
+                    }));
+        }
+        jdbc.update("insert into user_roles (user_id, role_id) select u.id, r.id from users u, roles r " +
+                "where u.username like '" + USER_PREFIX + "%' and r.name = 'ROLE_USER'");
+    }
+
+    private void insertAnimals(int count) {
+        for (int from = 0; from < count; from += BATCH) {
+            int base = from;
+            int size = Math.min(BATCH, count - from);
+            jdbc.batchUpdate("insert into animal (name, type, age, gender, req) values (?, ?, ?, ?, 0)",
+                    new Batch(size, (ps, i) -> {
+                        ps.setString(1, "Animal " + (base + i));
+                        ps.setString(2, TYPES[random.nextInt(TYPES.length)]);
+                        ps.setInt(3, random.nextInt(20));
+                        ps.setString(4, GENDERS[random.nextInt(2)]);
+                    }));
+        }
+    }
+
+    // Half the requests are already doctor-approved, so an admin approval turns them into animals
+    private void insertRequests(int count) {
+        for (int from = 0; from < count; from += BATCH) {
+            int base = from;
+            int size = Math.min(BATCH, count - from);
+            jdbc.batchUpdate("insert into request (name, type, age, gender, admin_approved, doc_approved) values (?, ?, ?, ?, 0, ?)",
+                    new Batch(size, (ps, i) -> {
+                        ps.setString(1, "Request " + (base + i));
+                        ps.setString(2, TYPES[random.nextInt(TYPES.length)]);
+                        ps.setInt(3, random.nextInt(20));
+                        ps.setString(4, GENDERS[random.nextInt(2)]);
+                        ps.setInt(5, (base + i) % 2);
+                    }));
+        }
+    }
+
+    private void insertAdoptions(int count, int[] users, int[] animals) {
+        for (int from = 0; from < count; from += BATCH) {
+            int size = Math.min(BATCH, count - from);
+            jdbc.batchUpdate("insert into adoption_request (user_id, animal_id, status) values (?, ?, ?)",
+                    new Batch(size, (ps, i) -> {
+                        ps.setInt(1, random.nextInt(users[0], users[1] + 1));
+                        ps.setInt(2, random.nextInt(animals[0], animals[1] + 1));
+                        ps.setString(3, STATUSES[random.nextInt(STATUSES.length)]);
+                    }));
+        }
+    }
+
+    private int[] range(String sql) {
+        return jdbc.queryForObject(sql, (rs, n) -> new int[]{rs.getInt(1), rs.getInt(2)});
+    }
+
+    private interface RowSetter {
+        void set(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    private record Batch(int size, RowSetter setter) implements BatchPreparedStatementSetter {
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            setter.set(ps, i);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.Ask.bench;
+
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Gender;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Deterministic fixtures shared by the benchmarks
+final class BenchData {
+
+    static final String PASSWORD = "correct-horse-battery";
+
+    // HS512 needs a base64 key of at least 64 bytes
+    static final String JWT_SECRET = "hhnRTcMBluohylmevf/T0ugZKpRvN/jfZBPBTIZsZkY4MUzAIp2u0rJ579b8oZjDmBFq0+IECUL8EDkbKWMOkA==";
+
+    private static final String[] TYPES = {"Dog", "Cat", "Rabbit", "Parrot", "Hamster"};
+
+    private BenchData() {
+    }
+
+    static List<Animal> animals(int n) {
+        List<Animal> animals = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Animal animal = new Animal(i + 1, i % 15, gender(i), TYPES[i % TYPES.length], "Animal " + i);
+            animal.setReq(i % 3 == 0 ? 1 : 0);
+            animals.add(animal);
+        }
+        return animals;
+    }
+
+    static List<Request> requests(int n) {
+        List<Request> requests = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Request request = new Request(i + 1, i % 15, gender(i), TYPES[i % TYPES.length], "Request " + i);
+            request.setAdminApproved(i % 2);
+            request.setDocApproved(i % 3 == 0 ? 1 : 0);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static List<User> users(int n) {
+        Role userRole = role(2, "ROLE_USER");
+        Role doctorRole = role(4, "ROLE_DOCTOR");
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Xx1Jt1sC0bq6Yfz4b8Bq3e");
+            user.setId(i + 1);
+            user.setEmailVerified(true);
+            user.setCreatedAt(created.plusMinutes(i));
+            user.setLastLogin(created.plusDays(1).plusMinutes(i));
+            user.setRoles(i % 10 == 0 ? Set.of(userRole, doctorRole) : Set.of(userRole));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static Gender gender(int i) {
+        return Gender.values()[i % Gender.values().length];
+    }
+
+    private static Role role(int id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+}
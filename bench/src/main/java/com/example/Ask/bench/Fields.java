@@ -0,0 +1,20 @@
+package com.example.Ask.bench;
+
+import java.lang.reflect.Field;
+
+// Sets the @Value fields of components that are built outside a Spring context
+final class Fields {
+
+    private Fields() {
+    }
+
+    static void set(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getName(), e);
+        }
+    }
+}
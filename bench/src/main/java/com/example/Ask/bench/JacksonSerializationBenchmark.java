@@ -0,0 +1,95 @@
+package com.example.Ask.bench;
+
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.Dto.UserDto;
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Entities.Request;
+import com.example.Ask.Entities.User;
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialization of the list responses (/api/animals, /api/requests, /api/users)
+// with a mapper configured the way Spring Boot configures the application's one.
+// The *Dtos benchmarks are what the endpoints write now: DTOs through Blackbird, in full and
+// with ?fields=id,name,type; the entity ones are the old responses, kept for comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Animal> animals;
+    private List<Request> requests;
+    private List<User> users;
+
+    private ObjectMapper dtoMapper;
+    private ObjectWriter sparseWriter;
+    private List<AnimalDto> animalDtos;
+    private List<UserDto> userDtos;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        animals = BenchData.animals(size);
+        requests = BenchData.requests(size);
+        users = BenchData.users(size);
+
+        dtoMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(SparseFieldsAdvice.SERIALIZE_ALL)
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+        sparseWriter = dtoMapper.writer(new SimpleFilterProvider().addFilter(SparseFieldsAdvice.FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept("id", "name", "type")));
+        animalDtos = animals.stream().map(AnimalDto::from).toList();
+        userDtos = users.stream().map(UserDto::from).toList();
+    }
+
+    @Benchmark
+    public byte[] animals() throws Exception {
+        return mapper.writeValueAsBytes(animals);
+    }
+
+    @Benchmark
+    public byte[] requests() throws Exception {
+        return mapper.writeValueAsBytes(requests);
+    }
+
+    @Benchmark
+    public byte[] users() throws Exception {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] animalDtos() throws Exception {
+        return dtoMapper.writeValueAsBytes(animalDtos);
+    }
+
+    @Benchmark
+    public byte[] animalDtosSparse() throws Exception {
+        return sparseWriter.writeValueAsBytes(animalDtos);
+    }
+
+    @Benchmark
+    public byte[] userDtos() throws Exception {
+        return dtoMapper.writeValueAsBytes(userDtos);
+    }
+}
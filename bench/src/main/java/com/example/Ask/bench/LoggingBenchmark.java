@@ -0,0 +1,144 @@
+package com.example.Ask.bench;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.Ask.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Logging cost of the authentication step every GET /api/animals goes through (AuthTokenFilter
+// -> JwtUtil.parseClaims), before and after the hot path was quietened:
+//   verbose       the two INFO lines and three DEBUG calls JwtUtil used to make per request,
+//                 written synchronously like the old plain console appender
+//   verboseAsync  the same calls through the ASYNC_CONSOLE setup of logback-spring.xml
+//   quiet         the current path: nothing is logged for a valid token
+//   baseline      the same parse with logging switched off: root at OFF, no appenders
+// The difference between verbose and quiet is the per-request logging overhead, and the one
+// between quiet and baseline is what the quiet path still costs. Events are formatted into a
+// null stream, so the real cost of a console or file write comes on top.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private AsyncAppender async;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        Fields.set(jwtUtil, "jwtSecret", BenchData.JWT_SECRET);
+        Fields.set(jwtUtil, "jwtExpirationMs", 86_400_000);
+        jwtUtil.init();
+        UserDetails principal = User.withUsername("bench-user")
+                .password("")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
+                .build();
+        token = jwtUtil.generateToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Without Spring nothing reads logback-spring.xml: build the equivalent appenders here
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        // Each benchmark runs in its own fork, so the baseline can switch logging off entirely
+        if (params.getBenchmark().endsWith(".baseline")) {
+            context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.OFF);
+            return;
+        }
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+
+        syncLogger = context.getLogger("bench.verbose.sync");
+        syncLogger.setAdditive(false);
+        syncLogger.addAppender(console(context, "SYNC_CONSOLE"));
+
+        async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC_CONSOLE");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(console(context, "CONSOLE"));
+        async.start();
+        asyncLogger = context.getLogger("bench.verbose.async");
+        asyncLogger.setAdditive(false);
+        asyncLogger.addAppender(async);
+        // JwtUtil and RateLimitedLogger log through the root logger, as in the application
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (async != null) {
+            async.stop();
+        }
+    }
+
+    @Benchmark
+    public Claims verbose() {
+        return verboseParse(syncLogger);
+    }
+
+    @Benchmark
+    public Claims verboseAsync() {
+        return verboseParse(asyncLogger);
+    }
+
+    @Benchmark
+    public Claims quiet() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims baseline() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    // What JwtUtil.validateToken logged on every request before the change
+    private Claims verboseParse(Logger logger) {
+        logger.info("Validating JWT token");
+        logger.debug("Token: {}", token);
+        logger.debug("Secret key length: {}", BenchData.JWT_SECRET.length());
+        Claims claims = jwtUtil.parseClaims(token);
+        logger.info("JWT validation successful");
+        logger.debug("Claims: {}", claims);
+        return claims;
+    }
+
+    private static Appender<ILoggingEvent> console(LoggerContext context, String name) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        // Spring Boot's console pattern, without colours
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
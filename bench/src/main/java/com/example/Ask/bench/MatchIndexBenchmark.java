@@ -0,0 +1,69 @@
+package com.example.Ask.bench;
+
+import com.example.Ask.Entities.Animal;
+import com.example.Ask.Service.MatchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// MatchIndex.top over 100k candidate animals for /api/animals/recommended: a user with a
+// request history and one without, on a single-thread pool and on one with all the cores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchIndexBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int REQUESTS_PER_USER = 5;
+
+    @Param({"100000"})
+    public int size;
+
+    // 0: one worker per core
+    @Param({"1", "0"})
+    public int threads;
+
+    @Param({"20"})
+    public int k;
+
+    private MatchIndex index;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        MatchIndex.Builder builder = new MatchIndex.Builder();
+        List<Animal> animals = BenchData.animals(size);
+        for (Animal animal : animals) {
+            builder.animal(animal.getId(), animal.getType(), animal.getAge(), animal.getGender().name());
+        }
+        // Each user asked for a few animals spread over the list
+        for (int user = 1; user <= USERS; user++) {
+            for (int r = 0; r < REQUESTS_PER_USER; r++) {
+                Animal animal = animals.get((user * 31 + r * 7919) % animals.size());
+                builder.interest(user, animal.getType(), animal.getAge(), animal.getGender().name());
+            }
+        }
+        index = builder.build();
+        pool = new ForkJoinPool(threads == 0 ? Runtime.getRuntime().availableProcessors() : threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] userWithHistory() {
+        return index.top(42, k, pool);
+    }
+
+    @Benchmark
+    public int[] userWithoutHistory() {
+        return index.top(USERS + 1, k, pool);
+    }
+}
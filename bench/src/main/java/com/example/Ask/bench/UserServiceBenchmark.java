@@ -0,0 +1,85 @@
+package com.example.Ask.bench;
+
+import com.example.Ask.Entities.Role;
+import com.example.Ask.Entities.User;
+import com.example.Ask.Repositories.RoleRepository;
+import com.example.Ask.Repositories.UserRepository;
+import com.example.Ask.Service.CacheInvalidationService;
+import com.example.Ask.Service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// UserService.loadUserByUsername through JPA against an in-memory H2 database.
+// Only the persistence layer and the service are started, with the Flyway schema
+// of the application, so the numbers are not mixed with web or security setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=bench")
+                .run();
+        userService = context.getBean(UserService.class);
+
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        Role role = roleRepository.findByName("ROLE_USER").orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
+        // One hash for every row: encoding is benchmarked separately
+        String hash = new BCryptPasswordEncoder(4).encode(BenchData.PASSWORD);
+        for (int i = 0; i < users; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", hash);
+            user.setRoles(Set.of(role));
+            userRepository.save(user);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userService.loadUserByUsername("user" + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @Import({UserService.class, CacheInvalidationService.class})
+    static class PersistenceConfig {
+
+        @Bean
+        BCryptPasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+    }
+}
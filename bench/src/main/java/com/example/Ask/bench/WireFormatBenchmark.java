@@ -0,0 +1,79 @@
+package com.example.Ask.bench;
+
+import com.example.Ask.Dto.AnimalDto;
+import com.example.Ask.config.SparseFieldsAdvice;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Encode time of a 10k-animal /api/animals response in each format the endpoint can serve.
+// Bytes on the wire are printed once per trial (look for "wire bytes" in the output).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private List<AnimalDto> animals;
+
+    @Setup
+    public void setup() throws Exception {
+        json = mapper().build();
+        cbor = mapper().factory(new CBORFactory()).build();
+        smile = mapper().factory(new SmileFactory()).build();
+        animals = BenchData.animals(size).stream().map(AnimalDto::from).toList();
+
+        System.out.printf("%nwire bytes for %d animals: json=%d json+gzip=%d cbor=%d smile=%d%n", size,
+                json(), jsonGzip(), cbor(), smile());
+    }
+
+    // The application's mapper settings (JacksonConfig)
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(SparseFieldsAdvice.SERIALIZE_ALL)
+                .modulesToInstall(new BlackbirdModule());
+    }
+
+    @Benchmark
+    public int json() throws Exception {
+        return json.writeValueAsBytes(animals).length;
+    }
+
+    // What Tomcat sends with server.compression for a client that accepts gzip
+    @Benchmark
+    public int jsonGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            json.writeValue(gzip, animals);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int cbor() throws Exception {
+        return cbor.writeValueAsBytes(animals).length;
+    }
+
+    @Benchmark
+    public int smile() throws Exception {
+        return smile.writeValueAsBytes(animals).length;
+    }
+}
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Time to first request of the backend.
+# Starts the application RUNS times and measures, from process launch, how long it
+# takes until /actuator/health/readiness (on the management port) answers 200 - the moment Kubernetes would
+# start routing traffic to the pod - and the resident set size of the process at that
+# point. The database settings come from the environment (SPRING_DATASOURCE_URL etc.).
+#
+#   bench/startup-bench.sh 5 -- java -jar Ask/target/Ask-0.0.1-SNAPSHOT-exec.jar
+#   bench/startup-bench.sh 5 -- java -XX:SharedArchiveFile=application/app.jsa \
+#       -Dspring.aot.enabled=true -Dspring.profiles.active=faststart -jar application/app.jar
+#   bench/startup-bench.sh 5 -- Ask/target/ask
+#
+# Results are printed and written as JSON to $RESULTS (default startup-results.json).
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+if [ "${1:-}" = "--" ]; then
+  shift
+fi
+if [ $# -eq 0 ]; then
+  echo "usage: $0 [runs] -- <java command>" >&2
+  exit 2
+fi
+
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+URL="http://localhost:${MANAGEMENT_PORT}/actuator/health/readiness"
+RESULTS=${RESULTS:-startup-results.json}
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+times=()
+rss=()
+for i in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  SERVER_PORT=$PORT MANAGEMENT_SERVER_PORT=$MANAGEMENT_PORT "$@" >"$LOG" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited before becoming ready:" >&2
+      tail -20 "$LOG" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(date +%s%N)
+  ms=$(( (end - start) / 1000000 ))
+  kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  started=$(grep -o 'Started AskApplication in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]*' | head -1 || true)
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "run $i: first request after ${ms} ms, RSS $(( kb / 1024 )) MB (Spring reported ${started:-?} s)"
+  times+=("$ms")
+  rss+=("$kb")
+done
+
+sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+median=${sorted[$(( ${#sorted[@]} / 2 ))]}
+echo "time to first request: min ${sorted[0]} ms, median ${median} ms, max ${sorted[-1]} ms"
+rss_sorted=($(printf '%s\n' "${rss[@]}" | sort -n))
+rss_median=${rss_sorted[$(( ${#rss_sorted[@]} / 2 ))]}
+echo "RSS when ready: median $(( rss_median / 1024 )) MB"
+
+printf '{"command":"%s","runs":[%s],"min_ms":%s,"median_ms":%s,"max_ms":%s,"rss_kb":[%s],"median_rss_kb":%s}\n' \
+  "$(echo "$*" | sed 's/"/\\"/g')" "$(IFS=,; echo "${times[*]}")" \
+  "${sorted[0]}" "$median" "${sorted[-1]}" "$(IFS=,; echo "${rss[*]}")" "$rss_median" >"$RESULTS"